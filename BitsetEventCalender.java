@@ -0,0 +1,677 @@
+package scheduler;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of the calendar as a dense occupancy bitset over the
+ * window of dates an event can be booked on.
+ * <p>
+ * Adds only accept dates from Date.PRESENT_DATE to
+ * Date.SIX_MONTHS_IN_FUTURE_DATE, and a day has Event.SLOTS_PER_DAY(18)
+ * (timeslot, location) slots, so every bookable slot gets a fixed index
+ * {@code dayOffset * SLOTS_PER_DAY + timeslot * NUM_LOCATIONS + location}.
+ * About 3300 slots fit in a bitset of a few hundred bytes, and the event
+ * of each slot is kept in parallel arrays (contact and duration) instead
+ * of as an object, so a removed event's contact is let go with it. Add,
+ * remove and contains are a table lookup and a bit operation, and
+ * printing by date walks the set bits in index order, which is already
+ * date, start time and location order. Insertion order is kept by an
+ * intrusive doubly linked list through the slot indexes, so removing an
+ * event never shifts anything.
+ * <p>
+ * Events outside the window, which only come from old snapshots or logs,
+ * get list nodes after the window slots and are kept as objects. Each
+ * listing keeps them sorted in its order, sorted again only after they
+ * change, and merges them into its walk of the bitset, so past events
+ * restored on a later day never make a listing sort the whole calendar.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class BitsetEventCalender implements CalendarStorage {
+    private static final int NIL = -1;
+    private static final int NOT_IN_WINDOW = -1;
+    private static final int WORD_BITS = Long.SIZE;
+    private static final int WORD_SHIFT = 6;
+    private static final int DAY_MASK = (1 << Event.SLOTS_PER_DAY) - 1;
+    private static final int INITIAL_OUTSIDE_CAPACITY = 4;
+    private static final int GROWTH_FACTOR = 2;
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Department[] DEPARTMENTS = Department.values();
+
+    private final long firstDayKey;
+    private final long lastDayKey;
+    private final int[] offsetOfDayKey; //day offset by dayKey - firstDayKey,
+    //or NOT_IN_WINDOW for keys that are not dates
+    private final Date[] days; //the date of every day offset
+    private final int numSlots;
+    private final long[] occupied; //bit i is set if slot i is booked
+    private final Contact[] contacts; //contact of the event of every slot
+    private final short[] durations; //duration of the event of every slot
+    private int[] next; //insertion-order list by node, NIL-terminated
+    private int[] prev;
+    private int head;
+    private int tail;
+    private int numEvents;
+    private Event[] outsideEvents; //events outside the window, by node
+    //minus numSlots
+    private final SlotTable outsideNodes; //node of every event outside
+    //the window, by slot key
+    private final IntervalIndex outsideIntervals; //booked intervals of
+    //the events outside the window
+    private int numOutside;
+    private int[] freeOutsideNodes; //outside nodes free for reuse
+    private int numFreeOutsideNodes;
+    private int numOutsideNodes; //outside nodes ever handed out
+    private Event[] outsideByDate; //events outside the window sorted for
+    private Event[] outsideByCampus; //each listing, or null until the next
+    private Event[] outsideByDepartment; //listing after they change
+    private final ListingWriter listing; //reused to render every listing
+    private EventLog log; //records every successful add and remove, or null
+
+    /**
+     * Instantiates an empty BitsetEventCalender for the window from
+     * Date.PRESENT_DATE to Date.SIX_MONTHS_IN_FUTURE_DATE.
+     */
+    public BitsetEventCalender() {
+        this(Date.PRESENT_DATE, Date.SIX_MONTHS_IN_FUTURE_DATE);
+    }
+
+    /**
+     * Instantiates an empty BitsetEventCalender whose bitset covers the
+     * given dates; events on other dates are still accepted but take the
+     * slower path.
+     * @param firstDay First date of the window, inclusive.
+     * @param lastDay Last date of the window, inclusive; not before
+     *                firstDay.
+     */
+    public BitsetEventCalender(Date firstDay, Date lastDay) {
+        firstDayKey = Event.dayKeyOf(firstDay);
+        lastDayKey = Event.dayKeyOf(lastDay);
+        offsetOfDayKey = new int[(int) (lastDayKey - firstDayKey + 1)];
+        Arrays.fill(offsetOfDayKey, NOT_IN_WINDOW);
+        ArrayList<Date> window = new ArrayList<>();
+        for (Date day = firstDay; day.compareTo(lastDay) <= 0;
+             day = day.nextDay()) {
+            offsetOfDayKey[(int) (Event.dayKeyOf(day) - firstDayKey)] =
+                    window.size();
+            window.add(day);
+        }
+        days = window.toArray(new Date[0]);
+        numSlots = days.length * Event.SLOTS_PER_DAY;
+        occupied = new long[(numSlots + WORD_BITS - 1) >>> WORD_SHIFT];
+        contacts = new Contact[numSlots];
+        durations = new short[numSlots];
+        next = new int[numSlots + INITIAL_OUTSIDE_CAPACITY];
+        prev = new int[next.length];
+        head = NIL;
+        tail = NIL;
+        outsideEvents = new Event[INITIAL_OUTSIDE_CAPACITY];
+        outsideNodes = new SlotTable();
+        outsideIntervals = new IntervalIndex();
+        freeOutsideNodes = new int[INITIAL_OUTSIDE_CAPACITY];
+        listing = new ListingWriter();
+    }
+
+    /**
+     * Attaches a write-ahead log that every later successful add and remove
+     * is appended to.
+     * @param log The log to append to, or null to stop logging.
+     */
+    @Override
+    public void setLog(EventLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Adds an event to the calendar, if it does not already exist in the
+     * calendar and does not overlap another event in the same location.
+     * @param event Event to add.
+     * @return True if event was added, false if it was not added.
+     */
+    @Override
+    public boolean add(Event event) {
+        int index = indexOf(event);
+        if (index == NOT_IN_WINDOW) {
+            return addOutside(event);
+        }
+        if (isSet(index) || overlapsRoom(index, event)) {
+            return false;
+        }
+        occupied[index >>> WORD_SHIFT] |= 1L << index;
+        contacts[index] = event.getContact();
+        durations[index] = (short) event.getDuration();
+        link(index);
+        numEvents++;
+        if (log != null) {
+            log.logAdd(event);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified event if it is in the calendar.
+     * @param event Event to remove; only its date, timeslot and location
+     *              are used.
+     * @return True if the event is removed, false if it is not found in
+     *         the calendar.
+     */
+    @Override
+    public boolean remove(Event event) {
+        int index = indexOf(event);
+        if (index == NOT_IN_WINDOW) {
+            return removeOutside(event);
+        }
+        if (!(isSet(index))) {
+            return false;
+        }
+        Event removed = eventAt(index);
+        occupied[index >>> WORD_SHIFT] &= ~(1L << index);
+        contacts[index] = null;
+        unlink(index);
+        numEvents--;
+        if (log != null) {
+            log.logRemove(removed);
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the specified event is in the calendar, with a single bit
+     * test for dates in the window.
+     * @param event Event to check
+     * @return True if event is in calendar, False if it is not.
+     */
+    @Override
+    public boolean contains(Event event) {
+        int index = indexOf(event);
+        if (index == NOT_IN_WINDOW) {
+            return outsideNodes.get(event.getSlotKey()) != SlotTable.NOT_FOUND;
+        }
+        return isSet(index);
+    }
+
+    /**
+     * Getter method for the number of events in the calendar.
+     * @return The number of events in the calendar.
+     */
+    @Override
+    public int size() {
+        return numEvents + numOutside;
+    }
+
+    /**
+     * Copies the events of the calendar in insertion order, by walking the
+     * insertion-order list.
+     * @return A new array holding every event in the calendar.
+     */
+    @Override
+    public Event[] toArray() {
+        Event[] events = new Event[size()];
+        int count = 0;
+        for (int node = head; node != NIL; node = next[node]) {
+            events[count++] = eventAtNode(node);
+        }
+        return events;
+    }
+
+    /**
+     * Gets the occupancy bitmap of a day, read straight out of the bitset
+     * for dates in the window.
+     * @param date The day.
+     * @return The bitmap of booked slots.
+     */
+    @Override
+    public int occupancyOf(Date date) {
+        int offset = offsetOf(Event.dayKeyOf(date));
+        if (offset == NOT_IN_WINDOW) {
+            return CalendarStorage.super.occupancyOf(date);
+        }
+        return bitsAt(offset * Event.SLOTS_PER_DAY);
+    }
+
+    /**
+     * Looks up the events that match a query, by date and start time,
+     * then location. The iterator is lazy and only reads the slot indexes
+     * of the query's dates that its location and timeslot allow. Events
+     * outside the window are all before or all after it, so the matching
+     * ones come before or after the window's. The calendar must not change
+     * while it is in use.
+     * @param query The date range and filters to match.
+     * @return An iterator over the matching events.
+     */
+    @Override
+    public Iterator<Event> query(EventQuery query) {
+        int from = firstOffsetFrom(query.getFromDayKey());
+        int to = firstOffsetFrom(query.getToDayKey() + 1);
+        Stream<Event> inWindow = IntStream.range(
+                        from * Event.SLOTS_PER_DAY,
+                        Math.max(from, to) * Event.SLOTS_PER_DAY)
+                .filter(index -> isSet(index) &&
+                        query.matchesSlot(index % Event.SLOTS_PER_DAY))
+                .mapToObj(this::eventAt)
+                .filter(query::matches);
+        if (numOutside == 0) {
+            return inWindow.iterator();
+        }
+        Event[] outside = sortedOutside(Event.BY_DATE);
+        Stream<Event> before = Arrays.stream(outside).filter(event ->
+                isBeforeWindow(event) && query.matches(event));
+        Stream<Event> after = Arrays.stream(outside).filter(event ->
+                !(isBeforeWindow(event)) && query.matches(event));
+        return Stream.concat(Stream.concat(before, inWindow), after)
+                .iterator();
+    }
+
+    /**
+     * Prints the calendar in insertion order.
+     * @param out The stream to print to.
+     */
+    @Override
+    public void print(PrintStream out) {
+        if (size() == 0) {
+            ListingWriter.printEmpty(out);
+            return;
+        }
+        listing.begin(ListingWriter.HEADER_ALL);
+        for (int node = head; node != NIL; node = next[node]) {
+            listing.append(eventAtNode(node));
+        }
+        listing.end(out);
+    }
+
+    /**
+     * Prints the calendar sorted by event date and start time, with one
+     * walk over the set bits.
+     * @param out The stream to print to.
+     */
+    @Override
+    public void printByDate(PrintStream out) {
+        if (size() == 0) {
+            ListingWriter.printEmpty(out);
+            return;
+        }
+        Event[] outside = sortedOutside(Event.BY_DATE);
+        listing.begin(ListingWriter.HEADER_BY_DATE);
+        int nextOutside = appendSetBits(0, 1, NIL, outside, 0,
+                Event.BY_DATE);
+        appendOutside(outside, nextOutside, null, Event.BY_DATE);
+        listing.end(out);
+    }
+
+    /**
+     * Prints the calendar sorted by campus and building, with one walk
+     * over the slots of each location in Location order.
+     * @param out The stream to print to.
+     */
+    @Override
+    public void printByCampus(PrintStream out) {
+        if (size() == 0) {
+            ListingWriter.printEmpty(out);
+            return;
+        }
+        Event[] outside = sortedOutside(Event.BY_CAMPUS);
+        listing.begin(ListingWriter.HEADER_BY_CAMPUS);
+        int nextOutside = 0;
+        for (int location = 0; location < Event.NUM_LOCATIONS; location++) {
+            nextOutside = appendSetBits(location, Event.NUM_LOCATIONS, NIL,
+                    outside, nextOutside, Event.BY_CAMPUS);
+        }
+        appendOutside(outside, nextOutside, null, Event.BY_CAMPUS);
+        listing.end(out);
+    }
+
+    /**
+     * Prints the calendar sorted by department, with one walk over the
+     * set bits for each department in Department order.
+     * @param out The stream to print to.
+     */
+    @Override
+    public void printByDepartment(PrintStream out) {
+        if (size() == 0) {
+            ListingWriter.printEmpty(out);
+            return;
+        }
+        Event[] outside = sortedOutside(Event.BY_DEPARTMENT);
+        listing.begin(ListingWriter.HEADER_BY_DEPARTMENT);
+        int nextOutside = 0;
+        for (Department department : DEPARTMENTS) {
+            nextOutside = appendSetBits(0, 1, department.ordinal(), outside,
+                    nextOutside, Event.BY_DEPARTMENT);
+        }
+        appendOutside(outside, nextOutside, null, Event.BY_DEPARTMENT);
+        listing.end(out);
+    }
+
+    /**
+     * Utility method to render the events of the window slots from
+     * {@code first} on, every {@code step} slots, in slot index order.
+     * Whole words with no set bits are skipped when step is 1. Before
+     * each event, the events outside the window that come before it in
+     * the listing's order are rendered.
+     * @param first The first slot index to look at.
+     * @param step The distance between the slot indexes to look at.
+     * @param department The ordinal of the only department to render, or
+     *                   NIL for every department.
+     * @param outside The events outside the window, sorted in order.
+     * @param nextOutside Index of the first of them not rendered yet.
+     * @param order The order of the listing.
+     * @return Index of the first event outside the window still not
+     *         rendered.
+     */
+    private int appendSetBits(int first, int step, int department,
+                              Event[] outside, int nextOutside,
+                              Comparator<Event> order) {
+        for (int index = first; index < numSlots; index += step) {
+            if (step == 1 && occupied[index >>> WORD_SHIFT] == 0) {
+                index |= WORD_BITS - 1; //skip the rest of an empty word
+                continue;
+            }
+            if (isSet(index) && (department == NIL ||
+                    departmentOrdinalAt(index) == department)) {
+                Event event = eventAt(index);
+                nextOutside = appendOutside(outside, nextOutside, event,
+                        order);
+                listing.append(event);
+            }
+        }
+        return nextOutside;
+    }
+
+    /**
+     * Utility method to render the events outside the window that come
+     * before a given event in the listing's order.
+     * @param outside The events outside the window, sorted in order.
+     * @param nextOutside Index of the first of them not rendered yet.
+     * @param bound The event to stop before, or null to render the rest.
+     * @param order The order of the listing.
+     * @return Index of the first of them still not rendered.
+     */
+    private int appendOutside(Event[] outside, int nextOutside, Event bound,
+                              Comparator<Event> order) {
+        while (nextOutside < outside.length && (bound == null ||
+                order.compare(outside[nextOutside], bound) < 0)) {
+            listing.append(outside[nextOutside++]);
+        }
+        return nextOutside;
+    }
+
+    /**
+     * Utility method to get the events outside the window sorted in the
+     * order of a listing, sorting them only if they changed since the
+     * last listing in that order.
+     * @param order Event.BY_DATE, Event.BY_CAMPUS or Event.BY_DEPARTMENT.
+     * @return The sorted events; must not be modified.
+     */
+    private Event[] sortedOutside(Comparator<Event> order) {
+        Event[] sorted = order == Event.BY_DATE ? outsideByDate :
+                order == Event.BY_CAMPUS ? outsideByCampus :
+                        outsideByDepartment;
+        if (sorted != null) {
+            return sorted;
+        }
+        sorted = new Event[numOutside];
+        int count = 0;
+        for (Event event : outsideEvents) {
+            if (event != null) {
+                sorted[count++] = event;
+            }
+        }
+        Arrays.sort(sorted, order);
+        if (order == Event.BY_DATE) {
+            outsideByDate = sorted;
+        } else if (order == Event.BY_CAMPUS) {
+            outsideByCampus = sorted;
+        } else {
+            outsideByDepartment = sorted;
+        }
+        return sorted;
+    }
+
+    /**
+     * Utility method to drop the sorted copies of the events outside the
+     * window after they change.
+     */
+    private void clearSortedOutside() {
+        outsideByDate = null;
+        outsideByCampus = null;
+        outsideByDepartment = null;
+    }
+
+    /**
+     * Utility method to check if any other booking of the same location
+     * on the same day overlaps an event, from the primitive fields of the
+     * bookings.
+     * @param index The slot index of the event.
+     * @param event The event.
+     * @return True if the event overlaps a booking in its room.
+     */
+    private boolean overlapsRoom(int index, Event event) {
+        int dayStart = index - index % Event.SLOTS_PER_DAY;
+        for (int other = dayStart + index % Event.NUM_LOCATIONS;
+             other < dayStart + Event.SLOTS_PER_DAY;
+             other += Event.NUM_LOCATIONS) {
+            int otherStart = TIMESLOTS[(other - dayStart) /
+                    Event.NUM_LOCATIONS].getStartMinute();
+            if (isSet(other) && otherStart < event.getEndMinute() &&
+                    event.getStartMinute() < otherStart + durations[other]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Utility method to add an event outside the window, with a list node
+     * after the window slots.
+     * @param event Event to add.
+     * @return True if event was added, false if it was not added.
+     */
+    private boolean addOutside(Event event) {
+        if (outsideNodes.get(event.getSlotKey()) != SlotTable.NOT_FOUND) {
+            return false;
+        }
+        if (outsideIntervals.findOverlap(event) != null) {
+            return false;
+        }
+        int node = numFreeOutsideNodes > 0 ?
+                freeOutsideNodes[--numFreeOutsideNodes] :
+                numSlots + numOutsideNodes++;
+        if (node - numSlots == outsideEvents.length) {
+            outsideEvents = Arrays.copyOf(outsideEvents,
+                    outsideEvents.length * GROWTH_FACTOR);
+            next = Arrays.copyOf(next, numSlots + outsideEvents.length);
+            prev = Arrays.copyOf(prev, next.length);
+        }
+        outsideEvents[node - numSlots] = event;
+        outsideNodes.put(event.getSlotKey(), node);
+        outsideIntervals.add(event);
+        link(node);
+        numOutside++;
+        clearSortedOutside();
+        if (log != null) {
+            log.logAdd(event);
+        }
+        return true;
+    }
+
+    /**
+     * Utility method to remove an event outside the window, freeing its
+     * list node for reuse.
+     * @param event Event to remove
+     * @return True if the event is removed, false if it is not found.
+     */
+    private boolean removeOutside(Event event) {
+        int node = outsideNodes.remove(event.getSlotKey());
+        if (node == SlotTable.NOT_FOUND) {
+            return false;
+        }
+        Event removed = outsideEvents[node - numSlots];
+        outsideEvents[node - numSlots] = null;
+        outsideIntervals.remove(removed);
+        unlink(node);
+        if (numFreeOutsideNodes == freeOutsideNodes.length) {
+            freeOutsideNodes = Arrays.copyOf(freeOutsideNodes,
+                    freeOutsideNodes.length * GROWTH_FACTOR);
+        }
+        freeOutsideNodes[numFreeOutsideNodes++] = node;
+        numOutside--;
+        clearSortedOutside();
+        if (log != null) {
+            log.logRemove(removed);
+        }
+        return true;
+    }
+
+    /**
+     * Utility method to append a node to the end of the insertion-order
+     * list.
+     * @param node The node.
+     */
+    private void link(int node) {
+        prev[node] = tail;
+        next[node] = NIL;
+        if (tail == NIL) {
+            head = node;
+        } else {
+            next[tail] = node;
+        }
+        tail = node;
+    }
+
+    /**
+     * Utility method to take a node out of the insertion-order list.
+     * @param node The node.
+     */
+    private void unlink(int node) {
+        if (prev[node] == NIL) {
+            head = next[node];
+        } else {
+            next[prev[node]] = next[node];
+        }
+        if (next[node] == NIL) {
+            tail = prev[node];
+        } else {
+            prev[next[node]] = prev[node];
+        }
+    }
+
+    /**
+     * Utility method to get the slot index of an event.
+     * @param event The event.
+     * @return The slot index, or NOT_IN_WINDOW if its date is outside the
+     *         window.
+     */
+    private int indexOf(Event event) {
+        long slotKey = event.getSlotKey();
+        int offset = offsetOf(Math.floorDiv(slotKey, Event.SLOTS_PER_DAY));
+        if (offset == NOT_IN_WINDOW) {
+            return NOT_IN_WINDOW;
+        }
+        return offset * Event.SLOTS_PER_DAY +
+                Math.floorMod(slotKey, Event.SLOTS_PER_DAY);
+    }
+
+    /**
+     * Utility method to check if an event outside the window is before it.
+     * @param event The event.
+     * @return True if the event is before the window, false if after.
+     */
+    private boolean isBeforeWindow(Event event) {
+        return Event.dayKeyOf(event.getDate()) < firstDayKey;
+    }
+
+    /**
+     * Utility method to get the day offset of a day key.
+     * @param dayKey The key of the day.
+     * @return The day offset, or NOT_IN_WINDOW.
+     */
+    private int offsetOf(long dayKey) {
+        if (dayKey < firstDayKey || dayKey > lastDayKey) {
+            return NOT_IN_WINDOW;
+        }
+        return offsetOfDayKey[(int) (dayKey - firstDayKey)];
+    }
+
+    /**
+     * Utility method to get the offset of the first day of the window on
+     * or after a day key.
+     * @param dayKey The key of the day.
+     * @return The day offset, or the number of days if there is none.
+     */
+    private int firstOffsetFrom(long dayKey) {
+        for (long key = Math.max(dayKey, firstDayKey); key <= lastDayKey;
+             key++) {
+            int offset = offsetOfDayKey[(int) (key - firstDayKey)];
+            if (offset != NOT_IN_WINDOW) {
+                return offset;
+            }
+        }
+        return days.length;
+    }
+
+    /**
+     * Utility method to test the bit of a slot.
+     * @param index The slot index.
+     * @return True if the slot is booked.
+     */
+    private boolean isSet(int index) {
+        return (occupied[index >>> WORD_SHIFT] & 1L << index) != 0;
+    }
+
+    /**
+     * Utility method to read the Event.SLOTS_PER_DAY(18) bits of a day,
+     * which may straddle two words of the bitset.
+     * @param start The slot index of the first slot of the day.
+     * @return The bits as an occupancy bitmap.
+     */
+    private int bitsAt(int start) {
+        int word = start >>> WORD_SHIFT;
+        int shift = start & (WORD_BITS - 1);
+        long bits = occupied[word] >>> shift;
+        if (shift + Event.SLOTS_PER_DAY > WORD_BITS) {
+            bits |= occupied[word + 1] << (WORD_BITS - shift);
+        }
+        return (int) bits & DAY_MASK;
+    }
+
+    /**
+     * Utility method to get the department ordinal of the event of a slot.
+     * @param index The slot index of a booked slot.
+     * @return The ordinal, or NIL if the event has no contact.
+     */
+    private int departmentOrdinalAt(int index) {
+        Contact contact = contacts[index];
+        return contact == null ? NIL : contact.getDepartment().ordinal();
+    }
+
+    /**
+     * Utility method to rebuild the event of a booked slot from its
+     * primitive fields.
+     * @param index The slot index.
+     * @return The event.
+     */
+    private Event eventAt(int index) {
+        int slot = index % Event.SLOTS_PER_DAY;
+        return new Event(days[index / Event.SLOTS_PER_DAY],
+                TIMESLOTS[slot / Event.NUM_LOCATIONS],
+                LOCATIONS[slot % Event.NUM_LOCATIONS], contacts[index],
+                durations[index]);
+    }
+
+    /**
+     * Utility method to get the event of a node of the insertion-order
+     * list.
+     * @param node The node.
+     * @return The event.
+     */
+    private Event eventAtNode(int node) {
+        return node < numSlots ? eventAt(node) :
+                outsideEvents[node - numSlots];
+    }
+}
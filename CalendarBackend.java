@@ -0,0 +1,69 @@
+package scheduler;
+
+import java.util.function.Supplier;
+
+/**
+ * Enum Class: Represents the storage engines a calendar can run on. Every
+ * engine implements CalendarStorage, so the organizer, the server, the
+ * benchmarks and the replay harness can be pointed at any of them, and
+ * all of them can be made persistent with a snapshot and a write-ahead log.
+ * @author Dharmik Patel and Krish Patel
+ */
+public enum CalendarBackend {
+    ARRAY(EventCalender::new, false),
+    CONCURRENT(ConcurrentEventCalender::new, true),
+    BITSET(BitsetEventCalender::new, false);
+    private static final CalendarBackend[] BACKENDS = values();
+    private final Supplier<CalendarStorage> factory;
+    private final boolean isThreadSafe;
+
+    /**
+     * This constructor is used by JVM, makes all the CalendarBackend enums.
+     * @param factory makes an empty calendar of the backend
+     * @param isThreadSafe true if many threads may share one calendar
+     */
+    CalendarBackend(Supplier<CalendarStorage> factory, boolean isThreadSafe) {
+        this.factory = factory;
+        this.isThreadSafe = isThreadSafe;
+    }
+
+    /**
+     * Makes an empty calendar stored by this backend.
+     * @return the new calendar
+     */
+    public CalendarStorage newCalendar() {
+        return factory.get();
+    }
+
+    /**
+     * Getter method to get the field: isThreadSafe.
+     * @return true if many threads may share one calendar of this backend
+     */
+    public boolean isThreadSafe() {
+        return isThreadSafe;
+    }
+
+    /**
+     * Looks up a backend by name, ignoring case.
+     * @param name the name of the backend, such as "bitset"
+     * @return the matching backend, or null if there is none
+     */
+    public static CalendarBackend fromName(String name) {
+        for (CalendarBackend backend : BACKENDS) {
+            if (backend.name().equalsIgnoreCase(name)) {
+                return backend;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Overrides toString method to return the backend's name as given on
+     * the command line.
+     * @return the name of the backend in lower case
+     */
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+}
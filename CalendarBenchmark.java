@@ -0,0 +1,399 @@
+package scheduler;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Micro-benchmarks for the hot paths of the calendar and the organizer,
+ * run from a main method so they need nothing but the JDK. For numbers
+ * to rely on, use the JMH benchmarks in the benchmarks module instead,
+ * which run in forked JVMs; they share the events and commands made here.
+ * <p>
+ * Every benchmark runs WARMUP_ROUNDS(3) unmeasured rounds so the JIT
+ * compiles the code under test, then MEASURED_ROUNDS(5) measured rounds,
+ * and reports the mean and best time per operation. Results are folded
+ * into a sink that is printed at the end, so no work can be optimized
+ * away. Listings are written to a stream that discards them.
+ * <p>
+ * The run ends with the heap used per event at the largest size, with
+ * and without interned contacts.
+ * <p>
+ * Usage: {@code java scheduler.CalendarBenchmark [size ...]}, where the
+ * sizes are calendar sizes in events (10, 1000, 100000 and 1000000 by
+ * default).
+ * @author Dharmik Patel and Krish Patel
+ */
+public class CalendarBenchmark {
+    private static final int[] DEFAULT_SIZES = {10, 1_000, 100_000,
+            1_000_000};
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int LOOKUPS_PER_ROUND = 100_000;
+    private static final int CHURN_PER_ROUND = 1_000;
+    private static final int PARSES_PER_ROUND = 100_000;
+    private static final int COMMANDS_PER_ROUND = 20_000;
+    private static final int WINDOW_DAYS = 180;
+    private static final long SEED = 42;
+    private static final int NUM_USERS = 100;
+    private static final int GC_PASSES = 3;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 1);
+    static final LocalDate PRELOAD_FIRST_DAY = LocalDate.now().plusYears(1);
+    //first day of the events an organizer's calendar is filled with, past
+    //the six month window its commands book in
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Department[] DEPARTMENTS = Department.values();
+    private static final PrintStream DISCARD = new PrintStream(
+            OutputStream.nullOutputStream());
+
+    private static long sink; //keeps results alive
+
+    /**
+     * Runs every benchmark at every calendar size.
+     * @param args Calendar sizes to run, or none for the defaults.
+     */
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.printf("%-42s %9s %12s %12s%n", "Benchmark", "Size",
+                "Mean ns/op", "Best ns/op");
+        for (int size : sizes) {
+            benchmarkCalendar("EventCalender", EventCalender::new, size);
+            benchmarkOrganizer(size);
+            benchmarkCalendar("ConcurrentEventCalender",
+                    ConcurrentEventCalender::new, size);
+            Date firstDay = dayOf(0);
+            Date lastDay = dayOf(Math.max(size - 1, 0));
+            benchmarkCalendar("BitsetEventCalender",
+                    () -> new BitsetEventCalender(firstDay, lastDay), size);
+        }
+        benchmarkDateParsing();
+        benchmarkContactValidation();
+        reportMemory(sizes[sizes.length - 1]);
+        System.out.println("(sink " + sink + ")");
+    }
+
+    /**
+     * Benchmarks add, contains, remove and every listing of one kind of
+     * calendar at one size.
+     * @param name Name of the calendar in the report.
+     * @param newCalendar Makes an empty calendar.
+     * @param size Number of events in the calendar.
+     */
+    private static void benchmarkCalendar(String name,
+            Supplier<CalendarStorage> newCalendar, int size) {
+        Event[] events = makeEvents(size, true);
+        measure(name + ".add", size, size, () -> {
+            CalendarStorage calendar = newCalendar.get();
+            for (Event event : events) {
+                calendar.add(event);
+            }
+            sink += calendar.size();
+        });
+
+        CalendarStorage calendar = newCalendar.get();
+        for (Event event : events) {
+            calendar.add(event);
+        }
+        Random random = new Random(SEED);
+        int[] picks = new int[Math.max(LOOKUPS_PER_ROUND, CHURN_PER_ROUND)];
+        for (int i = 0; i < picks.length; i++) {
+            picks[i] = random.nextInt(size);
+        }
+        measure(name + ".contains", size, LOOKUPS_PER_ROUND, () -> {
+            for (int i = 0; i < LOOKUPS_PER_ROUND; i++) {
+                if (calendar.contains(events[picks[i]])) {
+                    sink++;
+                }
+            }
+        });
+        int churn = Math.min(size, CHURN_PER_ROUND);
+        measure(name + ".remove+add", size, churn, () -> {
+            for (int i = 0; i < churn; i++) {
+                Event event = events[picks[i]];
+                if (calendar.remove(event)) {
+                    calendar.add(event);
+                    sink++;
+                }
+            }
+        });
+        measure(name + ".print", size, size, () -> calendar.print(DISCARD));
+        measure(name + ".printByDate", size, size,
+                () -> calendar.printByDate(DISCARD));
+        measure(name + ".printByCampus", size, size,
+                () -> calendar.printByCampus(DISCARD));
+        measure(name + ".printByDepartment", size, size,
+                () -> calendar.printByDepartment(DISCARD));
+    }
+
+    /**
+     * Benchmarks tokenizing command lines and parsing and validating their
+     * dates the way the organizer does, a fifth of them invalid.
+     */
+    private static void benchmarkDateParsing() {
+        ByteBuffer lines = ByteBuffer.wrap(makeDateLines(PARSES_PER_ROUND)
+                .getBytes(StandardCharsets.ISO_8859_1));
+        CommandTokenizer commands = new CommandTokenizer();
+        measure("CommandTokenizer.parseDate.isValid", PARSES_PER_ROUND,
+                PARSES_PER_ROUND, () -> {
+                    lines.rewind();
+                    while (commands.nextLine(lines, true)) {
+                        if (isValidEventDate(commands.parseDate(1))) {
+                            sink++;
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Checks a parsed date the way an add does.
+     * @param date The date, or null if it could not be parsed.
+     * @return True if an event may be added on the date.
+     */
+    static boolean isValidEventDate(Date date) {
+        return date != null && date.isValid() &&
+                date.isMoreThanPresentDate() &&
+                date.isLessThanDateSixMonthsInFuture();
+    }
+
+    /**
+     * Benchmarks validating contacts, a fifth of them invalid.
+     */
+    private static void benchmarkContactValidation() {
+        Contact[] contacts = new Contact[PARSES_PER_ROUND];
+        for (int i = 0; i < contacts.length; i++) {
+            String email = i % 5 == 0 ? "user" + i + "@gmail.com" :
+                    "user" + i + "@rutgers.edu";
+            contacts[i] = new Contact(DEPARTMENTS[i % DEPARTMENTS.length],
+                    email);
+        }
+        measure("Contact.isValid", PARSES_PER_ROUND, PARSES_PER_ROUND,
+                () -> {
+                    for (Contact contact : contacts) {
+                        if (contact.isValid()) {
+                            sink++;
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Benchmarks whole command lines through an EventOrganizer on a
+     * calendar already holding {@code size} events: tokenizing,
+     * validating, applying and answering them one at a time.
+     * @param size Number of events in the calendar.
+     */
+    private static void benchmarkOrganizer(int size) {
+        EventCalender calendar = new EventCalender();
+        for (Event event : makeEvents(size, true, PRELOAD_FIRST_DAY)) {
+            calendar.add(event);
+        }
+        EventOrganizer organizer = new EventOrganizer(calendar, DISCARD);
+        ByteBuffer lines = ByteBuffer.wrap(makeCommands(COMMANDS_PER_ROUND)
+                .getBytes(StandardCharsets.ISO_8859_1));
+        CommandTokenizer commands = new CommandTokenizer();
+        measure("EventOrganizer.runCommand", size, COMMANDS_PER_ROUND,
+                () -> {
+                    lines.rewind();
+                    while (commands.nextLine(lines, true)) {
+                        organizer.runCommand(commands);
+                    }
+                    sink += calendar.size();
+                });
+    }
+
+    /**
+     * Utility method to run a benchmark and print its result.
+     * @param name Name of the benchmark.
+     * @param size Calendar size, or input size, it runs at.
+     * @param opsPerRound Number of operations one round performs.
+     * @param round One round of the benchmark.
+     */
+    private static void measure(String name, int size, int opsPerRound,
+                                Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long total = 0;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            round.run();
+            long elapsed = System.nanoTime() - start;
+            total += elapsed;
+            best = Math.min(best, elapsed);
+        }
+        System.out.printf("%-42s %9d %12.1f %12.1f%n", name, size,
+                (double) total / MEASURED_ROUNDS / opsPerRound,
+                (double) best / opsPerRound);
+    }
+
+    /**
+     * Reports the heap used per event when every event has its own Contact
+     * and email, as read from the console, and when contacts are interned
+     * with Contact.of.
+     * @param size Number of events to measure with.
+     */
+    private static void reportMemory(int size) {
+        long before = usedHeap();
+        Event[] separate = makeEvents(size, false);
+        long separateBytes = usedHeap() - before;
+        sink += separate.length;
+        separate = null;
+        before = usedHeap();
+        Event[] interned = makeEvents(size, true);
+        long internedBytes = usedHeap() - before;
+        sink += interned.length;
+        System.out.printf("Heap per event at %d events: %.1f bytes with a " +
+                        "Contact per event, %.1f bytes with interned " +
+                        "contacts%n", size, (double) separateBytes / size,
+                (double) internedBytes / size);
+        Reference.reachabilityFence(interned);
+    }
+
+    /**
+     * Utility method to measure the live heap after garbage collection.
+     * @return Bytes of heap in use.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < GC_PASSES; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Utility method to get the date of the i-th event made by makeEvents,
+     * before shuffling. Every day holds Event.SLOTS_PER_DAY(18) events.
+     * @param index Index of the event.
+     * @return The date of the event.
+     */
+    static Date dayOf(int index) {
+        return dayOf(FIRST_DAY, index);
+    }
+
+    /**
+     * Utility method to get the date of the i-th event made by makeEvents
+     * from a given first day, before shuffling.
+     * @param firstDay Date of the first events.
+     * @param index Index of the event.
+     * @return The date of the event.
+     */
+    static Date dayOf(LocalDate firstDay, int index) {
+        LocalDate day = firstDay.plusDays(index / Event.SLOTS_PER_DAY);
+        return new Date(day.getMonthValue(), day.getDayOfMonth(),
+                day.getYear());
+    }
+
+    /**
+     * Utility method to make distinct events filling consecutive days,
+     * Event.SLOTS_PER_DAY(18) per day, in a shuffled order. Large sizes
+     * run far past the six month window, which the calendar itself does
+     * not enforce. Emails are built per event, the way lines read from
+     * the console are.
+     * @param size Number of events to make.
+     * @param isInterned True to share contacts through Contact.of, false
+     *                   to give every event its own Contact.
+     * @return The events.
+     */
+    static Event[] makeEvents(int size, boolean isInterned) {
+        return makeEvents(size, isInterned, FIRST_DAY);
+    }
+
+    /**
+     * Utility method to make distinct events filling consecutive days from
+     * a given first day, the way makeEvents(int, boolean) does.
+     * @param size Number of events to make.
+     * @param isInterned True to share contacts through Contact.of, false
+     *                   to give every event its own Contact.
+     * @param firstDay Date of the first events.
+     * @return The events.
+     */
+    static Event[] makeEvents(int size, boolean isInterned,
+                              LocalDate firstDay) {
+        Event[] events = new Event[size];
+        for (int i = 0; i < size; i++) {
+            int slot = i % Event.SLOTS_PER_DAY;
+            Department department = DEPARTMENTS[i % DEPARTMENTS.length];
+            String email = "user" + i % NUM_USERS + "@rutgers.edu";
+            events[i] = new Event(dayOf(firstDay, i),
+                    TIMESLOTS[slot / Event.NUM_LOCATIONS],
+                    LOCATIONS[slot % Event.NUM_LOCATIONS],
+                    isInterned ? Contact.of(department, email) :
+                            new Contact(department, email), 60);
+        }
+        Random random = new Random(SEED);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Event swap = events[i];
+            events[i] = events[j];
+            events[j] = swap;
+        }
+        return events;
+    }
+
+    /**
+     * Utility method to make command lines holding a date where an add
+     * has it, a fifth of them on days that do not exist.
+     * @param count Number of command lines.
+     * @return The commands, one per line.
+     */
+    static String makeDateLines(int count) {
+        Random random = new Random(SEED);
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            LocalDate day = tomorrow.plusDays(random.nextInt(WINDOW_DAYS));
+            lines.append("A ").append(day.getMonthValue()).append('/')
+                    .append(i % 5 == 0 ? 32 : day.getDayOfMonth())
+                    .append('/').append(day.getYear()).append('\n');
+        }
+        return lines.toString();
+    }
+
+    /**
+     * Utility method to make a command stream of adds and cancels on
+     * dates inside the six month window, with a one-day range listing now
+     * and then.
+     * @param count Number of command lines.
+     * @return The commands, one per line.
+     */
+    static String makeCommands(int count) {
+        Random random = new Random(SEED);
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        StringBuilder commands = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            LocalDate day = tomorrow.plusDays(random.nextInt(WINDOW_DAYS));
+            String where = day.getMonthValue() + "/" + day.getDayOfMonth() +
+                    "/" + day.getYear() + " " +
+                    TIMESLOTS[random.nextInt(TIMESLOTS.length)].name() + " " +
+                    LOCATIONS[random.nextInt(LOCATIONS.length)].name();
+            int kind = random.nextInt(100);
+            if (kind < 70) {
+                commands.append("A ").append(where).append(' ')
+                        .append(DEPARTMENTS[random.nextInt(
+                                DEPARTMENTS.length)].name())
+                        .append(" user@rutgers.edu 60");
+            } else if (kind < 99) {
+                commands.append("R ").append(where);
+            } else {
+                commands.append("PR ").append(where, 0, where.indexOf(' '))
+                        .append(' ').append(where, 0, where.indexOf(' '));
+            }
+            commands.append('\n');
+        }
+        return commands.toString();
+    }
+}
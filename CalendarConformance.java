@@ -0,0 +1,497 @@
+package scheduler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Conformance testbed shared by every CalendarBackend. Each test case runs
+ * the same operations against every backend and checks the results, and
+ * the randomized cases check every backend against CalendarBackend.ARRAY
+ * as the reference, so a new backend only has to be added to the enum to
+ * be held to the same contract.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class CalendarConformance {
+    private static final CalendarBackend[] BACKENDS =
+            CalendarBackend.values();
+    private static final CalendarBackend REFERENCE = CalendarBackend.ARRAY;
+    private static final int NUM_RANDOM_OPERATIONS = 20_000;
+    private static final int NUM_EVENTS = 2_000;
+    private static final int NUM_QUERIES = 200;
+    private static final int MAX_FREE_SLOTS = 50;
+    private static final int BATCH_SIZE = 200;
+    private static final int CHECK_INTERVAL = 1_000;
+    private static final int WINDOW_DAYS = 183;
+    private static final int FEBRUARY_DAYS = 28;
+    private static final int[] LONG_EMAIL_LENGTHS = {40_000, 70_000};
+    private static final long SEED = 42;
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Department[] DEPARTMENTS = Department.values();
+
+    /**
+     * Test Case #1: an add of a new event succeeds, a second add of the
+     * same slot is rejected, and contains and size agree.
+     * @param backend The backend to test.
+     * @return True if the test passed.
+     */
+    private static boolean testAddAndDuplicate(CalendarBackend backend) {
+        CalendarStorage calendar = backend.newCalendar();
+        Event event = eventOn(tomorrow(), Timeslot.MORNING, Location.HLL114,
+                Department.CS);
+        Event sameSlot = eventOn(tomorrow(), Timeslot.MORNING,
+                Location.HLL114, Department.EE);
+        return calendar.add(event) && !(calendar.add(sameSlot)) &&
+                calendar.contains(sameSlot) && calendar.size() == 1;
+    }
+
+    /**
+     * Test Case #2: a remove of a booked event succeeds only once, and only
+     * the date, timeslot and location of the event to remove are used.
+     * @param backend The backend to test.
+     * @return True if the test passed.
+     */
+    private static boolean testRemove(CalendarBackend backend) {
+        CalendarStorage calendar = backend.newCalendar();
+        calendar.add(eventOn(tomorrow(), Timeslot.EVENING, Location.ARC103,
+                Department.MATH));
+        Event incomplete = new Event(tomorrow(), Timeslot.EVENING,
+                Location.ARC103);
+        return calendar.remove(incomplete) && !(calendar.remove(incomplete))
+                && !(calendar.contains(incomplete)) && calendar.size() == 0;
+    }
+
+    /**
+     * Test Case #3: toArray keeps insertion order across removes.
+     * @param backend The backend to test.
+     * @return True if the test passed.
+     */
+    private static boolean testInsertionOrder(CalendarBackend backend) {
+        CalendarStorage calendar = backend.newCalendar();
+        Date later = tomorrow().nextDay();
+        Event first = eventOn(later, Timeslot.EVENING, Location.MU302,
+                Department.BAIT);
+        Event second = eventOn(tomorrow(), Timeslot.MORNING,
+                Location.AB2225, Department.ITI);
+        Event third = eventOn(later, Timeslot.MORNING, Location.BE_AUD,
+                Department.CS);
+        calendar.add(first);
+        calendar.add(second);
+        calendar.add(third);
+        calendar.remove(second);
+        calendar.add(second);
+        return Arrays.equals(calendar.toArray(),
+                new Event[]{first, third, second});
+    }
+
+    /**
+     * Test Case #4: addAll reports the same results as adding one event at
+     * a time, including duplicates within the batch.
+     * @param backend The backend to test.
+     * @return True if the test passed.
+     */
+    private static boolean testAddAll(CalendarBackend backend) {
+        CalendarStorage calendar = backend.newCalendar();
+        Event booked = eventOn(tomorrow(), Timeslot.AFTERNOON,
+                Location.TIL232, Department.EE);
+        calendar.add(booked);
+        Event fresh = eventOn(tomorrow(), Timeslot.MORNING, Location.TIL232,
+                Department.EE);
+        Event[] batch = {fresh, booked, fresh, eventOn(tomorrow().nextDay(),
+                Timeslot.AFTERNOON, Location.TIL232, Department.MATH)};
+        boolean[] isAdded = calendar.addAll(batch, batch.length);
+        return Arrays.equals(isAdded, new boolean[]{true, false, false,
+                true}) && calendar.size() == 3;
+    }
+
+    /**
+     * Test Case #5: an empty calendar prints the empty message for every
+     * listing, and has every slot free.
+     * @param backend The backend to test.
+     * @return True if the test passed.
+     */
+    private static boolean testEmpty(CalendarBackend backend) {
+        CalendarStorage calendar = backend.newCalendar();
+        String empty = "Event calendar is empty!" + System.lineSeparator();
+        String listings = listingsOf(calendar);
+        return listings.equals(empty.repeat(4)) &&
+                calendar.occupancyOf(tomorrow()) == 0 &&
+                calendar.findAvailable(new EventQuery(tomorrow(),
+                        tomorrow()), MAX_FREE_SLOTS).length ==
+                        Event.SLOTS_PER_DAY;
+    }
+
+    /**
+     * Test Case #6: a random mix of adds, removes and contains gives the
+     * same results, listings, queries and free slots as the reference.
+     * @param backend The backend to test.
+     * @return True if the test passed.
+     */
+    private static boolean testRandomWorkload(CalendarBackend backend) {
+        Random random = new Random(SEED);
+        Event[] events = makeEvents(random);
+        CalendarStorage reference = REFERENCE.newCalendar();
+        CalendarStorage calendar = backend.newCalendar();
+        for (int i = 0; i < NUM_RANDOM_OPERATIONS; i++) {
+            Event event = events[random.nextInt(events.length)];
+            int operation = random.nextInt(3);
+            boolean expected;
+            boolean actual;
+            if (operation == 0) {
+                expected = reference.add(event);
+                actual = calendar.add(event);
+            } else if (operation == 1) {
+                expected = reference.remove(event);
+                actual = calendar.remove(event);
+            } else {
+                expected = reference.contains(event);
+                actual = calendar.contains(event);
+            }
+            if (expected != actual || (i % CHECK_INTERVAL == 0 &&
+                    !(isSameState(reference, calendar, random)))) {
+                return false;
+            }
+        }
+        return isSameState(reference, calendar, random);
+    }
+
+    /**
+     * Test Case #7: a calendar saved to a snapshot and loaded into a new
+     * calendar of the same backend holds the same events.
+     * @param backend The backend to test.
+     * @return True if the test passed.
+     */
+    private static boolean testSnapshotRoundTrip(CalendarBackend backend) {
+        Random random = new Random(SEED);
+        CalendarStorage calendar = backend.newCalendar();
+        for (Event event : makeEvents(random)) {
+            calendar.add(event);
+        }
+        try {
+            Path file = Files.createTempFile("conformance", ".bin");
+            try {
+                CalendarFile.save(calendar, file);
+                CalendarStorage loaded = backend.newCalendar();
+                CalendarFile.load(file, loaded);
+                return Arrays.equals(calendar.toArray(), loaded.toArray()) &&
+                        listingsOf(calendar).equals(listingsOf(loaded));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Test Case #8: events whose emails are longer than the buffers of the
+     * snapshot and the log come back whole from both, along with the
+     * events logged after them.
+     * @param backend The backend to test.
+     * @return True if the test passed.
+     */
+    private static boolean testLongEmails(CalendarBackend backend) {
+        CalendarStorage calendar = backend.newCalendar();
+        try {
+            Path snapshotFile = Files.createTempFile("conformance", ".bin");
+            Path logFile = Files.createTempFile("conformance", ".log");
+            try {
+                try (EventLog log = new EventLog(logFile, 0,
+                        EventLog.DEFAULT_COMPACTION_SIZE)) {
+                    calendar.setLog(log);
+                    Date date = tomorrow();
+                    for (int length : LONG_EMAIL_LENGTHS) {
+                        calendar.add(new Event(date, Timeslot.MORNING,
+                                Location.HLL114, Contact.of(Department.CS,
+                                "x".repeat(length) + "@rutgers.edu"), 60));
+                        date = date.nextDay();
+                    }
+                    calendar.add(eventOn(tomorrow(), Timeslot.EVENING,
+                            Location.ARC103, Department.EE));
+                    calendar.setLog(null);
+                }
+                CalendarFile.save(calendar, snapshotFile);
+                CalendarStorage loaded = backend.newCalendar();
+                CalendarFile.load(snapshotFile, loaded);
+                CalendarStorage replayed = backend.newCalendar();
+                int numReplayed = EventLog.replay(logFile, replayed);
+                return numReplayed == calendar.size() &&
+                        listingsOf(calendar).equals(listingsOf(loaded)) &&
+                        listingsOf(calendar).equals(listingsOf(replayed));
+            } finally {
+                Files.deleteIfExists(snapshotFile);
+                Files.deleteIfExists(logFile);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Test Case #9: a logged addAll batch whose events are not in date
+     * order is replayed in batch order, so the calendar restored from the
+     * log lists the events in the same insertion order.
+     * @param backend The backend to test.
+     * @return True if the test passed.
+     */
+    private static boolean testLoggedBatchOrder(CalendarBackend backend) {
+        CalendarStorage calendar = backend.newCalendar();
+        Event[] batch = Arrays.copyOf(makeEvents(new Random(SEED)),
+                BATCH_SIZE);
+        try {
+            Path logFile = Files.createTempFile("conformance", ".log");
+            try {
+                try (EventLog log = new EventLog(logFile, 0,
+                        EventLog.DEFAULT_COMPACTION_SIZE)) {
+                    calendar.setLog(log);
+                    calendar.addAll(batch, batch.length);
+                    calendar.setLog(null);
+                }
+                CalendarStorage replayed = backend.newCalendar();
+                EventLog.replay(logFile, replayed);
+                return calendar.size() > 1 && Arrays.equals(
+                        calendar.toArray(), replayed.toArray());
+            } finally {
+                Files.deleteIfExists(logFile);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Test Case #10: events dated a year before or after the booking
+     * window, as restored from an old snapshot on a later day, give the
+     * same listings and queries as the reference while events come and go
+     * around them.
+     * @param backend The backend to test.
+     * @return True if the test passed.
+     */
+    private static boolean testOutsideWindow(CalendarBackend backend) {
+        Random random = new Random(SEED);
+        Event[] events = makeEvents(random);
+        for (int i = 0; i < events.length; i += 3) {
+            events[i] = shiftYears(events[i], i % 2 == 0 ? -1 : 1);
+        }
+        CalendarStorage reference = REFERENCE.newCalendar();
+        CalendarStorage calendar = backend.newCalendar();
+        int year = Date.PRESENT_DATE.getYear();
+        EventQuery everything = new EventQuery(Date.valueOf(1, 1, year - 1),
+                Date.valueOf(12, 31, year + 2), null, null, null);
+        for (int i = 0; i < NUM_RANDOM_OPERATIONS; i++) {
+            Event event = events[random.nextInt(events.length)];
+            boolean isAdd = random.nextInt(3) != 0; //grow the calendar
+            if ((isAdd ? reference.add(event) != calendar.add(event) :
+                    reference.remove(event) != calendar.remove(event)) ||
+                    (i % CHECK_INTERVAL == 0 && !(isSameState(reference,
+                            calendar, random)))) {
+                return false;
+            }
+        }
+        return reference.size() > 0 &&
+                isSameState(reference, calendar, random) &&
+                toList(reference.query(everything)).equals(
+                        toList(calendar.query(everything)));
+    }
+
+    /**
+     * Utility method to move an event to the same day some years away.
+     * The 29th of February and later days move to the 28th, so the date
+     * exists in every year.
+     * @param event The event to move.
+     * @param years The number of years to move it by.
+     * @return The moved event.
+     */
+    private static Event shiftYears(Event event, int years) {
+        Date date = event.getDate();
+        return new Event(Date.valueOf(date.getMonth().ordinal() + 1,
+                Math.min(date.getDay(), FEBRUARY_DAYS),
+                date.getYear() + years), event.getStartTime(),
+                event.getLocation(), event.getContact(),
+                event.getDuration());
+    }
+
+    /**
+     * Utility method to compare a calendar with the reference: size,
+     * toArray, every listing, and random queries and free slot searches.
+     * @param reference The reference calendar.
+     * @param calendar The calendar under test.
+     * @param random Picks the queries.
+     * @return True if the two calendars behave the same.
+     */
+    private static boolean isSameState(CalendarStorage reference,
+                                       CalendarStorage calendar,
+                                       Random random) {
+        if (reference.size() != calendar.size() ||
+                !(Arrays.equals(reference.toArray(), calendar.toArray())) ||
+                !(listingsOf(reference).equals(listingsOf(calendar)))) {
+            return false;
+        }
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            Date fromDate = randomDate(random);
+            Date toDate = randomDate(random);
+            if (toDate.compareTo(fromDate) < 0) {
+                Date swap = fromDate;
+                fromDate = toDate;
+                toDate = swap;
+            }
+            EventQuery query = new EventQuery(fromDate, toDate,
+                    random.nextBoolean() ? null :
+                            LOCATIONS[random.nextInt(LOCATIONS.length)],
+                    random.nextBoolean() ? null :
+                            DEPARTMENTS[random.nextInt(DEPARTMENTS.length)],
+                    random.nextBoolean() ? null :
+                            TIMESLOTS[random.nextInt(TIMESLOTS.length)]);
+            if (!(toList(reference.query(query)).equals(
+                    toList(calendar.query(query)))) ||
+                    !(Arrays.equals(reference.findAvailable(query,
+                            MAX_FREE_SLOTS), calendar.findAvailable(query,
+                            MAX_FREE_SLOTS))) ||
+                    reference.occupancyOf(fromDate) !=
+                            calendar.occupancyOf(fromDate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Utility method to render all four listings of a calendar.
+     * @param calendar The calendar.
+     * @return The listings, one after the other.
+     */
+    private static String listingsOf(CalendarStorage calendar) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes);
+        calendar.print(out);
+        calendar.printByDate(out);
+        calendar.printByCampus(out);
+        calendar.printByDepartment(out);
+        out.flush();
+        return bytes.toString();
+    }
+
+    /**
+     * Utility method to drain an iterator into a list.
+     * @param events The iterator.
+     * @return The events, in iteration order.
+     */
+    private static ArrayList<Event> toList(Iterator<Event> events) {
+        ArrayList<Event> list = new ArrayList<>();
+        events.forEachRemaining(list::add);
+        return list;
+    }
+
+    /**
+     * Utility method to make events on random slots of the booking window
+     * with random contacts and durations.
+     * @param random Picks the slots, contacts and durations.
+     * @return The events; some take the same slot.
+     */
+    private static Event[] makeEvents(Random random) {
+        Event[] events = new Event[NUM_EVENTS];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(randomDate(random),
+                    TIMESLOTS[random.nextInt(TIMESLOTS.length)],
+                    LOCATIONS[random.nextInt(LOCATIONS.length)],
+                    Contact.of(DEPARTMENTS[random.nextInt(
+                            DEPARTMENTS.length)], "user" +
+                            random.nextInt(NUM_EVENTS) + "@rutgers.edu"),
+                    Event.MIN_DURATION + random.nextInt(
+                            Event.MAX_DURATION - Event.MIN_DURATION + 1));
+        }
+        return events;
+    }
+
+    /**
+     * Utility method to pick a date an add accepts.
+     * @param random Picks the date.
+     * @return A date after today and at most six months away.
+     */
+    private static Date randomDate(Random random) {
+        Date date = tomorrow();
+        int skip = random.nextInt(WINDOW_DAYS);
+        for (int i = 0; i < skip; i++) {
+            Date next = date.nextDay();
+            if (!(next.isLessThanDateSixMonthsInFuture())) {
+                break;
+            }
+            date = next;
+        }
+        return date;
+    }
+
+    /**
+     * Utility method to get the first date an add accepts.
+     * @return The day after today.
+     */
+    private static Date tomorrow() {
+        return Date.PRESENT_DATE.nextDay();
+    }
+
+    /**
+     * Utility method to make a complete event of one hour.
+     * @param date Date of the event.
+     * @param timeslot Timeslot of the event.
+     * @param location Location of the event.
+     * @param department Department of the contact.
+     * @return The event.
+     */
+    private static Event eventOn(Date date, Timeslot timeslot,
+                                 Location location, Department department) {
+        return new Event(date, timeslot, location, Contact.of(department,
+                "organizer@rutgers.edu"), 60);
+    }
+
+    /**
+     * Template code to format and print the results of one test case.
+     * @param name The name of the test case.
+     * @param backend The backend tested.
+     * @param isPassed True if the test passed.
+     * @return 1 if the test failed, 0 if it passed.
+     */
+    private static int testResult(String name, CalendarBackend backend,
+                                  boolean isPassed) {
+        System.out.printf("\t%s | %s on %s\n", isPassed ? "Test Passed!" :
+                "Test Failed!", name, backend);
+        return isPassed ? 0 : 1;
+    }
+
+    /**
+     * Testbed main for the CalendarStorage contract of every backend.
+     * @param args command line args
+     */
+    public static void main(String[] args) {
+        int numFailed = 0;
+        for (CalendarBackend backend : BACKENDS) {
+            System.out.println("**Testing the " + backend + " backend");
+            numFailed += testResult("add and duplicate", backend,
+                    testAddAndDuplicate(backend));
+            numFailed += testResult("remove", backend, testRemove(backend));
+            numFailed += testResult("insertion order", backend,
+                    testInsertionOrder(backend));
+            numFailed += testResult("addAll", backend, testAddAll(backend));
+            numFailed += testResult("empty calendar", backend,
+                    testEmpty(backend));
+            numFailed += testResult("random workload", backend,
+                    testRandomWorkload(backend));
+            numFailed += testResult("snapshot round trip", backend,
+                    testSnapshotRoundTrip(backend));
+            numFailed += testResult("long emails", backend,
+                    testLongEmails(backend));
+            numFailed += testResult("logged batch order", backend,
+                    testLoggedBatchOrder(backend));
+            numFailed += testResult("events outside the window", backend,
+                    testOutsideWindow(backend));
+        }
+        System.out.println(numFailed == 0 ? "All tests passed." :
+                numFailed + " tests failed.");
+    }
+}
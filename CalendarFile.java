@@ -0,0 +1,247 @@
+package scheduler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+/**
+ * Reads and writes binary snapshots of a calendar.
+ * <p>
+ * Format: a header (MAGIC, VERSION), the table of distinct emails (count,
+ * then a UTF-8 string each, prefixed by its length as an int), the number
+ * of events, and one
+ * fixed-width record of RECORD_SIZE(13) bytes per event in insertion order:
+ * packed date (int, as YYYYMMDD), timeslot ordinal (byte),
+ * location ordinal (byte), department ordinal (byte), duration (short)
+ * and the index of the email in the email table (int). Snapshots of
+ * VERSION_SHORT_EMAILS(1), whose email lengths are unsigned shorts, can
+ * still be loaded.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class CalendarFile {
+    public static final int RECORD_SIZE = 13;
+    private static final int MAGIC = 0x45564353; //"EVCS"
+    private static final int VERSION = 2;
+    private static final int VERSION_SHORT_EMAILS = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int YEAR_FACTOR = 10000;
+    private static final int MONTH_FACTOR = 100;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Department[] DEPARTMENTS = Department.values();
+
+    /**
+     * Writes a snapshot of every event in the calendar. The snapshot is
+     * written to a temporary file, forced to disk and then moved over
+     * {@code file}, so a crash never leaves a half written snapshot.
+     * @param calendar The calendar to save.
+     * @param file The snapshot file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void save(CalendarStorage calendar, Path file)
+            throws IOException {
+        Event[] events = calendar.toArray();
+        HashMap<String, Integer> emailIndexes = new HashMap<>();
+        for (Event event : events) {
+            emailIndexes.putIfAbsent(event.getContact().getEmail(),
+                    emailIndexes.size());
+        }
+        String[] emails = new String[emailIndexes.size()];
+        emailIndexes.forEach((email, index) -> emails[index] = email);
+
+        Path tempFile = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(emails.length);
+            for (String email : emails) {
+                putBytes(channel, buffer,
+                        email.getBytes(StandardCharsets.UTF_8));
+            }
+            ensureRoom(channel, buffer, Integer.BYTES);
+            buffer.putInt(events.length);
+            for (Event event : events) {
+                ensureRoom(channel, buffer, RECORD_SIZE);
+                putEvent(buffer, event,
+                        emailIndexes.get(event.getContact().getEmail()));
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Adds every event of a snapshot to the calendar. The file is memory
+     * mapped, and the calendar is grown once to fit all the events. Every
+     * count and length is checked against the bytes left before anything
+     * is allocated for it, so a corrupt snapshot fails with an IOException.
+     * @param file The snapshot file to read.
+     * @param calendar The calendar to add the events to.
+     * @return The number of events in the snapshot.
+     * @throws IOException If the file cannot be read or is not a snapshot.
+     */
+    public static int load(Path file, CalendarStorage calendar)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 3 * Integer.BYTES ||
+                    buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a calendar snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION && version != VERSION_SHORT_EMAILS) {
+                throw new IOException(file + " is not a calendar snapshot");
+            }
+            int lengthSize = version == VERSION_SHORT_EMAILS ?
+                    Short.BYTES : Integer.BYTES;
+            int numEmails = buffer.getInt();
+            if (numEmails < 0 || numEmails > buffer.remaining() / lengthSize) {
+                throw new IOException(file + " is not a calendar snapshot");
+            }
+            String[] emails = new String[numEmails];
+            for (int i = 0; i < emails.length; i++) {
+                int length = version == VERSION_SHORT_EMAILS ?
+                        buffer.getShort() & 0xFFFF : buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IOException(file + " is not a calendar " +
+                            "snapshot");
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                emails[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            int numEvents = buffer.getInt();
+            if (numEvents < 0 || numEvents > buffer.remaining() / RECORD_SIZE) {
+                throw new IOException(file + " is not a calendar snapshot");
+            }
+            calendar.ensureCapacity(calendar.size() + numEvents);
+            for (int i = 0; i < numEvents; i++) {
+                calendar.add(getEvent(buffer, emails));
+            }
+            return numEvents;
+        } catch (RuntimeException e) {
+            throw new IOException(file + " is not a calendar snapshot", e);
+        }
+    }
+
+    /**
+     * Writes the fixed-width record of an event.
+     * @param buffer The buffer to write to, with RECORD_SIZE bytes left.
+     * @param event The event to write.
+     * @param emailIndex Index of the event's email in the email table.
+     */
+    public static void putEvent(ByteBuffer buffer, Event event,
+                                int emailIndex) {
+        buffer.putInt(packDate(event.getDate()))
+                .put((byte) event.getStartTime().ordinal())
+                .put((byte) event.getLocation().ordinal())
+                .put((byte) event.getContact().getDepartment().ordinal())
+                .putShort((short) event.getDuration())
+                .putInt(emailIndex);
+    }
+
+    /**
+     * Reads the fixed-width record of an event.
+     * @param buffer The buffer to read from, positioned at the record.
+     * @param emails The email table the record's email index points into.
+     * @return The event.
+     */
+    public static Event getEvent(ByteBuffer buffer, String[] emails) {
+        Date date = unpackDate(buffer.getInt());
+        Timeslot startTime = TIMESLOTS[buffer.get()];
+        Location location = LOCATIONS[buffer.get()];
+        Department department = DEPARTMENTS[buffer.get()];
+        int duration = buffer.getShort();
+        String email = emails[buffer.getInt()];
+        return new Event(date, startTime, location,
+                Contact.of(department, email), duration);
+    }
+
+    /**
+     * Packs a date into a single int as YYYYMMDD.
+     * @param date The date to pack.
+     * @return The packed date.
+     */
+    public static int packDate(Date date) {
+        return date.getYear() * YEAR_FACTOR +
+                (date.getMonth().ordinal() + 1) * MONTH_FACTOR +
+                date.getDay();
+    }
+
+    /**
+     * Unpacks a date packed by packDate.
+     * @param packedDate The date packed as YYYYMMDD.
+     * @return The date.
+     */
+    public static Date unpackDate(int packedDate) {
+        return Date.valueOf(packedDate / MONTH_FACTOR % MONTH_FACTOR,
+                packedDate % MONTH_FACTOR, packedDate / YEAR_FACTOR);
+    }
+
+    /**
+     * Utility method to write a byte string prefixed by its length as an
+     * int. A string too long for the buffer is written straight to the
+     * channel once the buffer has been written out.
+     * @param channel The channel to write to.
+     * @param buffer The buffer being filled.
+     * @param bytes The bytes to write.
+     * @throws IOException If the channel cannot be written.
+     */
+    private static void putBytes(FileChannel channel, ByteBuffer buffer,
+                                 byte[] bytes) throws IOException {
+        ensureRoom(channel, buffer, Integer.BYTES + bytes.length);
+        buffer.putInt(bytes.length);
+        if (bytes.length <= buffer.remaining()) {
+            buffer.put(bytes);
+            return;
+        }
+        drain(channel, buffer);
+        ByteBuffer large = ByteBuffer.wrap(bytes);
+        while (large.hasRemaining()) {
+            channel.write(large);
+        }
+    }
+
+    /**
+     * Utility method to make room in the buffer by writing it out.
+     * @param channel The channel to write to.
+     * @param buffer The buffer being filled.
+     * @param bytes Number of bytes about to be put in the buffer.
+     * @throws IOException If the channel cannot be written.
+     */
+    private static void ensureRoom(FileChannel channel, ByteBuffer buffer,
+                                   int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain(channel, buffer);
+        }
+    }
+
+    /**
+     * Utility method to write everything in the buffer to the channel and
+     * clear the buffer.
+     * @param channel The channel to write to.
+     * @param buffer The buffer being filled.
+     * @throws IOException If the channel cannot be written.
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
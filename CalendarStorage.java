@@ -0,0 +1,200 @@
+package scheduler;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * The operations of a calendar of scheduled events, independent of how the
+ * events are stored. Events are identified by their date, timeslot and
+ * location, the same way Event.equals compares them.
+ * @author Dharmik Patel and Krish Patel
+ */
+public interface CalendarStorage {
+
+    /**
+     * Adds an event to the calendar, if it does not already exist in the
+     * calendar and its [start, end) interval does not overlap another
+     * event in the same location on the same date.
+     * @param event Event to add.
+     * @return True if event was added, false if it was not added.
+     */
+    boolean add(Event event);
+
+    /**
+     * Adds a batch of events in order, as if add was called on each one.
+     * Calendars that can apply a batch with less locking or indexing work
+     * than one add at a time override this.
+     * @param events The events to add.
+     * @param count Number of events at the start of the array to add.
+     * @return For each event, true if it was added and false if it was
+     *         already in the calendar or earlier in the batch, or overlaps
+     *         one that is.
+     */
+    default boolean[] addAll(Event[] events, int count) {
+        boolean[] isAdded = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            isAdded[i] = add(events[i]);
+        }
+        return isAdded;
+    }
+
+    /**
+     * Removes the specified event if it is in the calendar.
+     * @param event Event to remove; only its date, timeslot and location
+     *              are used.
+     * @return True if the event is removed, false if it is not found in
+     *         the calendar.
+     */
+    boolean remove(Event event);
+
+    /**
+     * Checks if the specified event is in the calendar.
+     * @param event Event to check
+     * @return True if event is in calendar, False if it is not.
+     */
+    boolean contains(Event event);
+
+    /**
+     * Getter method for the number of events in the calendar.
+     * @return The number of events in the calendar.
+     */
+    int size();
+
+    /**
+     * Copies the events of the calendar in insertion order.
+     * @return A new array holding every event in the calendar.
+     */
+    Event[] toArray();
+
+    /**
+     * Looks up the events that match a query, by date and start time,
+     * then location. The default implementation sorts a copy of the whole
+     * calendar; calendars with a date-ordered index override it to only
+     * walk the dates of the query.
+     * @param query The date range and filters to match.
+     * @return An iterator over the matching events.
+     */
+    default Iterator<Event> query(EventQuery query) {
+        Event[] events = toArray();
+        Arrays.sort(events, Event.BY_DATE);
+        return Arrays.stream(events).filter(query::matches).iterator();
+    }
+
+    /**
+     * Gets the occupancy bitmap of a day, where bit
+     * {@code timeslot * Event.NUM_LOCATIONS + location} is set if that
+     * slot is booked. The default implementation checks all
+     * Event.SLOTS_PER_DAY(18) slots with contains; calendars that keep a
+     * bitmap per day override it.
+     * @param date The day.
+     * @return The bitmap of booked slots.
+     */
+    default int occupancyOf(Date date) {
+        int occupied = 0;
+        for (int slot = 0; slot < Event.SLOTS_PER_DAY; slot++) {
+            if (contains(Event.ofSlot(date, slot))) {
+                occupied |= 1 << slot;
+            }
+        }
+        return occupied;
+    }
+
+    /**
+     * Finds the earliest free slots, in date, start time and location
+     * order, with a single pass over the days of the date range. Each day
+     * costs one occupancy bitmap, masked by the location and timeslot the
+     * constraints allow. Any event of at most Event.MAX_DURATION fits a
+     * free slot, since it ends before the next timeslot starts.
+     * @param constraints The date range, and optionally the location and
+     *                    timeslot, to search; the department is ignored.
+     * @param maxSlots The most slots to return.
+     * @return Incomplete events for up to maxSlots free slots, earliest
+     *         first.
+     */
+    default Event[] findAvailable(EventQuery constraints, int maxSlots) {
+        int allowed = constraints.slotMask();
+        ArrayList<Event> found = new ArrayList<>();
+        for (Date date = constraints.getFromDate();
+             found.size() < maxSlots &&
+                     date.compareTo(constraints.getToDate()) <= 0;
+             date = date.nextDay()) {
+            int free = ~occupancyOf(date) & allowed;
+            while (free != 0 && found.size() < maxSlots) {
+                found.add(Event.ofSlot(date,
+                        Integer.numberOfTrailingZeros(free)));
+                free &= free - 1;
+            }
+        }
+        return found.toArray(new Event[0]);
+    }
+
+    /**
+     * Makes sure the calendar can hold at least {@code capacity} events
+     * without growing again. Calendars that do not grow ignore this.
+     * @param capacity Minimum number of events the calendar must hold.
+     */
+    default void ensureCapacity(int capacity) {
+    }
+
+    /**
+     * Attaches a write-ahead log that every later successful add and remove
+     * is appended to.
+     * @param log The log to append to, or null to stop logging.
+     */
+    void setLog(EventLog log);
+
+    /**
+     * Prints the calendar in insertion order.
+     * @param out The stream to print to.
+     */
+    void print(PrintStream out);
+
+    /**
+     * Prints the calendar sorted by event date and start time.
+     * @param out The stream to print to.
+     */
+    void printByDate(PrintStream out);
+
+    /**
+     * Prints the calendar sorted by campus and building.
+     * @param out The stream to print to.
+     */
+    void printByCampus(PrintStream out);
+
+    /**
+     * Prints the calendar sorted by department.
+     * @param out The stream to print to.
+     */
+    void printByDepartment(PrintStream out);
+
+    /**
+     * Prints the calendar in insertion order to the console.
+     */
+    default void print() {
+        print(System.out);
+    }
+
+    /**
+     * Prints the calendar sorted by event date and start time to the
+     * console.
+     */
+    default void printByDate() {
+        printByDate(System.out);
+    }
+
+    /**
+     * Prints the calendar sorted by campus and building to the console.
+     */
+    default void printByCampus() {
+        printByCampus(System.out);
+    }
+
+    /**
+     * Prints the calendar sorted by department to the console.
+     */
+    default void printByDepartment() {
+        printByDepartment(System.out);
+    }
+}
@@ -0,0 +1,312 @@
+package scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, versioned snapshot of a ConcurrentEventCalender.
+ * <p>
+ * A view is never changed after it is published. Every change to the
+ * calendar publishes a new view that shares all unchanged days with the
+ * previous one, so readers can walk a view for as long as they like
+ * without locking and without seeing half-applied changes, and writers
+ * never wait for readers.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class CalendarView {
+    static final CalendarView EMPTY = new CalendarView(0, new long[0],
+            new Day[0], 0);
+    private static final Comparator<Booking> BY_ARRIVAL =
+            Comparator.comparingLong(booking -> booking.arrival);
+    private static final int NOT_FOUND = -1;
+
+    private final long version;
+    private final long[] dayKeys; //sorted keys of the days with events
+    private final Day[] days; //the day of each key in dayKeys
+    private final int numEvents;
+
+    /**
+     * Makes a view from its days.
+     * @param version The number of changes published before this view.
+     * @param dayKeys Sorted keys of the days with events.
+     * @param days The day of each key in dayKeys.
+     * @param numEvents The total number of events in the days.
+     */
+    private CalendarView(long version, long[] dayKeys, Day[] days,
+                         int numEvents) {
+        this.version = version;
+        this.dayKeys = dayKeys;
+        this.days = days;
+        this.numEvents = numEvents;
+    }
+
+    /**
+     * An event together with the order in which it was added.
+     */
+    static final class Booking {
+        final Event event;
+        final long arrival;
+
+        /**
+         * Makes a booking.
+         * @param event The booked event.
+         * @param arrival Position of the booking in insertion order.
+         */
+        Booking(Event event, long arrival) {
+            this.event = event;
+            this.arrival = arrival;
+        }
+    }
+
+    /**
+     * Immutable set of the bookings of one day, indexed by slot
+     * (timeslot and location). Changing a day makes a new Day.
+     */
+    static final class Day {
+        static final Day EMPTY = new Day(new Booking[Event.SLOTS_PER_DAY], 0,
+                0);
+        final Booking[] slots;
+        final int count;
+        final int occupied; //bit i is set if slot i is booked
+
+        /**
+         * Makes a day from its slots.
+         * @param slots The booking of every slot, or null if it is free.
+         * @param count The number of booked slots.
+         * @param occupied The occupancy bitmap of the slots.
+         */
+        private Day(Booking[] slots, int count, int occupied) {
+            this.slots = slots;
+            this.count = count;
+            this.occupied = occupied;
+        }
+
+        /**
+         * Makes a copy of this day with one more booking.
+         * @param slot The free slot to book.
+         * @param booking The booking.
+         * @return The new day.
+         */
+        Day with(int slot, Booking booking) {
+            Booking[] updated = slots.clone();
+            updated[slot] = booking;
+            return new Day(updated, count + 1, occupied | 1 << slot);
+        }
+
+        /**
+         * Makes a copy of this day with one booking less.
+         * @param slot The booked slot to free.
+         * @return The new day, or null if no bookings are left.
+         */
+        Day without(int slot) {
+            if (count == 1) {
+                return null;
+            }
+            Booking[] updated = slots.clone();
+            updated[slot] = null;
+            return new Day(updated, count - 1, occupied & ~(1 << slot));
+        }
+    }
+
+    /**
+     * Getter method for the version of the view, which counts the changes
+     * published before it. A later view always has a higher version.
+     * @return The version of the view.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Getter method for the number of events in the view.
+     * @return The number of events in the view.
+     */
+    public int size() {
+        return numEvents;
+    }
+
+    /**
+     * Copies the events of the view in insertion order.
+     * @return A new array holding every event in the view.
+     */
+    public Event[] toArray() {
+        ArrayList<Booking> bookings = new ArrayList<>(numEvents);
+        for (Day day : days) {
+            for (Booking booking : day.slots) {
+                if (booking != null) {
+                    bookings.add(booking);
+                }
+            }
+        }
+        bookings.sort(BY_ARRIVAL);
+        Event[] events = new Event[bookings.size()];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = bookings.get(i).event;
+        }
+        return events;
+    }
+
+    /**
+     * Copies the events of the view by date and start time, then location.
+     * Days are kept in date order and each day's slots in start time and
+     * location order, so this is a walk with no sorting.
+     * @return A new array holding every event in the view.
+     */
+    public Event[] toArrayByDate() {
+        Event[] events = new Event[numEvents];
+        int count = 0;
+        for (Day day : days) {
+            for (Booking booking : day.slots) {
+                if (booking != null) {
+                    events[count++] = booking.event;
+                }
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Copies the events of the view by campus and building, then date and
+     * start time. Distributes the date order into one bucket per location,
+     * which keeps each bucket in date order without comparisons.
+     * @return A new array holding every event in the view.
+     */
+    public Event[] toArrayByCampus() {
+        Event[] byDate = toArrayByDate();
+        int[] bucketStart = new int[Event.NUM_LOCATIONS + 1];
+        for (Event event : byDate) {
+            bucketStart[event.getLocation().ordinal() + 1]++;
+        }
+        return distribute(byDate, bucketStart, false);
+    }
+
+    /**
+     * Copies the events of the view by department, then date and start
+     * time, by distributing the date order into one bucket per department.
+     * @return A new array holding every event in the view.
+     */
+    public Event[] toArrayByDepartment() {
+        Event[] byDate = toArrayByDate();
+        int[] bucketStart = new int[Department.values().length + 1];
+        for (Event event : byDate) {
+            bucketStart[event.getContact().getDepartment().ordinal() + 1]++;
+        }
+        return distribute(byDate, bucketStart, true);
+    }
+
+    /**
+     * Looks up the events of the view that match a query, by date and
+     * start time, then location. Binary searches for the first day of the
+     * range and walks the days up to the last one, and within each day
+     * only reads the slots the query's location and timeslot allow, so
+     * the events of other days and rooms are never touched.
+     * @param query The date range and filters to match.
+     * @return A lazy iterator over the matching events.
+     */
+    public Iterator<Event> query(EventQuery query) {
+        int from = Arrays.binarySearch(dayKeys, query.getFromDayKey());
+        int to = Arrays.binarySearch(dayKeys, query.getToDayKey());
+        from = from < 0 ? -(from + 1) : from;
+        to = to < 0 ? -(to + 1) : to + 1;
+        return IntStream.range(from, Math.max(from, to))
+                .mapToObj(index -> days[index].slots)
+                .flatMap(slots -> IntStream.range(0, slots.length)
+                        .filter(slot -> slots[slot] != null &&
+                                query.matchesSlot(slot))
+                        .mapToObj(slot -> slots[slot].event))
+                .filter(query::matches)
+                .iterator();
+    }
+
+    /**
+     * Looks up a day of the view.
+     * @param dayKey The key of the day.
+     * @return The day, or null if it has no events.
+     */
+    Day getDay(long dayKey) {
+        int index = Arrays.binarySearch(dayKeys, dayKey);
+        return index < 0 ? null : days[index];
+    }
+
+    /**
+     * Makes the next version of the view, with one day replaced.
+     * @param dayKey The key of the changed day.
+     * @param day The new state of the day, or null if it has no events.
+     * @return The new view.
+     */
+    CalendarView with(long dayKey, Day day) {
+        int index = Arrays.binarySearch(dayKeys, dayKey);
+        int oldCount = index < 0 ? 0 : days[index].count;
+        int newCount = day == null ? 0 : day.count;
+        long[] newKeys;
+        Day[] newDays;
+        if (index >= 0 && day != null) {
+            newKeys = dayKeys;
+            newDays = days.clone();
+            newDays[index] = day;
+        } else if (index >= 0) {
+            newKeys = remove(dayKeys, index);
+            newDays = new Day[days.length - 1];
+            System.arraycopy(days, 0, newDays, 0, index);
+            System.arraycopy(days, index + 1, newDays, index,
+                    days.length - index - 1);
+        } else if (day != null) {
+            int insertAt = -(index + 1);
+            newKeys = new long[dayKeys.length + 1];
+            System.arraycopy(dayKeys, 0, newKeys, 0, insertAt);
+            newKeys[insertAt] = dayKey;
+            System.arraycopy(dayKeys, insertAt, newKeys, insertAt + 1,
+                    dayKeys.length - insertAt);
+            newDays = new Day[days.length + 1];
+            System.arraycopy(days, 0, newDays, 0, insertAt);
+            newDays[insertAt] = day;
+            System.arraycopy(days, insertAt, newDays, insertAt + 1,
+                    days.length - insertAt);
+        } else {
+            return this;
+        }
+        return new CalendarView(version + 1, newKeys, newDays,
+                numEvents - oldCount + newCount);
+    }
+
+    /**
+     * Utility method to copy an array without one of its elements.
+     * @param keys The array.
+     * @param index Index of the element to leave out.
+     * @return The shorter copy.
+     */
+    private static long[] remove(long[] keys, int index) {
+        long[] shorter = new long[keys.length - 1];
+        System.arraycopy(keys, 0, shorter, 0, index);
+        System.arraycopy(keys, index + 1, shorter, index,
+                keys.length - index - 1);
+        return shorter;
+    }
+
+    /**
+     * Utility method for a stable counting sort of events in date order
+     * into buckets by location or department.
+     * @param byDate The events in date order.
+     * @param bucketStart Size of each bucket, shifted up by one index.
+     * @param isByDepartment True to bucket by department, false to bucket
+     *                       by location.
+     * @return A new array with the buckets in order.
+     */
+    private static Event[] distribute(Event[] byDate, int[] bucketStart,
+                                      boolean isByDepartment) {
+        for (int i = 1; i < bucketStart.length; i++) {
+            bucketStart[i] += bucketStart[i - 1];
+        }
+        Event[] sorted = new Event[byDate.length];
+        for (Event event : byDate) {
+            int bucket = isByDepartment ?
+                    event.getContact().getDepartment().ordinal() :
+                    event.getLocation().ordinal();
+            sorted[bucketStart[bucket]++] = event;
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,377 @@
+package scheduler;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+/**
+ * Single-pass, allocation-free tokenizer for the command line protocol.
+ * Each input line is copied once into a reusable char buffer and split on
+ * whitespace the same way {@code split("\\s+")} would, but tokens are only
+ * recorded as start and end offsets. Numbers, dates and enum constants are
+ * parsed straight from the buffer, so the normal path never creates a
+ * String.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class CommandTokenizer {
+    public static final int INVALID_NUMBER = Integer.MIN_VALUE;
+    private static final int MAX_TOKENS = 16;
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final int INITIAL_LINE_SIZE = 128;
+    private static final int DATE_FIELDS = 3;
+    private static final int RADIX = 10;
+    private static final char DATE_SEPARATOR = '/';
+
+    private final Reader input;
+    private final char[] readBuffer;
+    private int readPosition;
+    private int readLimit;
+    private char[] line; //the current line, without its line terminator
+    private int lineLength;
+    private final int[] tokenStart;
+    private final int[] tokenEnd;
+    private int tokenCount;
+    private final int[] dateFields; //scratch space used by parseDate
+
+    /**
+     * Instantiates a tokenizer that is only fed through
+     * {@code nextLine(ByteBuffer, boolean)}.
+     */
+    public CommandTokenizer() {
+        this(null);
+    }
+
+    /**
+     * Instantiates a tokenizer that reads lines from the given input.
+     * @param input The source of the command lines.
+     */
+    public CommandTokenizer(Reader input) {
+        this.input = input;
+        readBuffer = new char[READ_BUFFER_SIZE];
+        line = new char[INITIAL_LINE_SIZE];
+        tokenStart = new int[MAX_TOKENS];
+        tokenEnd = new int[MAX_TOKENS];
+        dateFields = new int[DATE_FIELDS];
+    }
+
+    /**
+     * Reads the next line into the line buffer and tokenizes it. A line
+     * ends at "\n", and a "\r" right before it is dropped.
+     * @return True if a line was read, false at the end of the input.
+     * @throws IOException If the input cannot be read.
+     */
+    public boolean nextLine() throws IOException {
+        lineLength = 0;
+        boolean readAnything = false;
+        while (true) {
+            if (readPosition == readLimit) {
+                readLimit = input.read(readBuffer, 0, readBuffer.length);
+                readPosition = 0;
+                if (readLimit <= 0) {
+                    readLimit = 0;
+                    if (!readAnything) {
+                        return false;
+                    }
+                    break;
+                }
+            }
+            readAnything = true;
+            char c = readBuffer[readPosition++];
+            if (c == '\n') {
+                break;
+            }
+            appendToLine(c);
+        }
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        tokenize();
+        return true;
+    }
+
+    /**
+     * Checks if a whole line is already buffered, so the next call to
+     * nextLine() returns without waiting on the input.
+     * @return True if the read buffer holds another "\n".
+     */
+    public boolean hasBufferedLine() {
+        for (int i = readPosition; i < readLimit; i++) {
+            if (readBuffer[i] == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the next line straight out of a byte buffer, such as a memory
+     * mapped file, and tokenizes it. Bytes are read as ISO-8859-1, which
+     * covers the ASCII command protocol. The buffer position is moved past
+     * the line and its "\n".
+     * @param bytes The buffer to read from, starting at its position.
+     * @param isEndOfInput True if nothing follows the buffer, so a last
+     *                     line without "\n" is still a complete line.
+     * @return True if a line was read. False if the buffer is empty, or if
+     *         it ends in the middle of a line and more input follows; the
+     *         position is then left at the start of that line.
+     */
+    public boolean nextLine(ByteBuffer bytes, boolean isEndOfInput) {
+        int lineBegin = bytes.position();
+        int limit = bytes.limit();
+        if (lineBegin == limit) {
+            return false;
+        }
+        lineLength = 0;
+        int i = lineBegin;
+        while (i < limit) {
+            byte b = bytes.get(i++);
+            if (b == '\n') {
+                break;
+            }
+            appendToLine((char) (b & 0xFF));
+            if (i == limit && !isEndOfInput) {
+                return false;
+            }
+        }
+        bytes.position(i);
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        tokenize();
+        return true;
+    }
+
+    /**
+     * Getter method for the number of tokens on the current line.
+     * @return The number of tokens on the current line.
+     */
+    public int tokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Checks if the whole current line is exactly the given text.
+     * @param text The text to compare with.
+     * @return True if the line equals the text.
+     */
+    public boolean lineEquals(String text) {
+        return regionEquals(0, lineLength, text, false);
+    }
+
+    /**
+     * Checks if a token is exactly the given text. A missing token is
+     * treated as an empty token.
+     * @param index Index of the token on the line.
+     * @param text The text to compare with.
+     * @return True if the token equals the text.
+     */
+    public boolean tokenEquals(int index, String text) {
+        return regionEquals(start(index), end(index), text, false);
+    }
+
+    /**
+     * Creates a String for a token. Only meant for error messages, since
+     * it is the one method that allocates.
+     * @param index Index of the token on the line.
+     * @return The token as a String, or "" if the token is missing.
+     */
+    public String token(int index) {
+        return new String(line, start(index), end(index) - start(index));
+    }
+
+    /**
+     * Parses a token as a decimal integer with an optional sign.
+     * @param index Index of the token on the line.
+     * @return The number, or INVALID_NUMBER if the token is not a number.
+     */
+    public int parseInt(int index) {
+        return parseInt(start(index), end(index));
+    }
+
+    /**
+     * Parses a token in the format MONTH/DAY/YEAR, for example 09/06/2023.
+     * The date is only checked for its format; call Date.isValid to check
+     * that it exists on the calendar.
+     * @param index Index of the token on the line.
+     * @return The parsed Date, or null if the token is not three numbers
+     *         separated by "/".
+     */
+    public Date parseDate(int index) {
+        int fieldStart = start(index);
+        int end = end(index);
+        int field = 0;
+        for (int i = fieldStart; i <= end; i++) {
+            if (i == end || line[i] == DATE_SEPARATOR) {
+                if (field == DATE_FIELDS) {
+                    return null;
+                }
+                dateFields[field] = parseInt(fieldStart, i);
+                if (dateFields[field] == INVALID_NUMBER) {
+                    return null;
+                }
+                field++;
+                fieldStart = i + 1;
+            }
+        }
+        if (field != DATE_FIELDS) {
+            return null;
+        }
+        return Date.valueOf(dateFields[0], dateFields[1], dateFields[2]);
+    }
+
+    /**
+     * Looks up a token among the names of an enum's constants, ignoring
+     * case, the same way {@code valueOf(token.toUpperCase())} would.
+     * @param index Index of the token on the line.
+     * @param constants All constants of the enum, in any order.
+     * @param <E> The enum type.
+     * @return The matching constant, or null if there is none.
+     */
+    public <E extends Enum<E>> E parseEnum(int index, E[] constants) {
+        for (E constant : constants) {
+            if (regionEquals(start(index), end(index), constant.name(),
+                    true)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Utility method to append a character to the line buffer, growing it
+     * if the line is longer than any line seen before.
+     * @param c The character to append.
+     */
+    private void appendToLine(char c) {
+        if (lineLength == line.length) {
+            char[] longerLine = new char[line.length * 2];
+            System.arraycopy(line, 0, longerLine, 0, lineLength);
+            line = longerLine;
+        }
+        line[lineLength++] = c;
+    }
+
+    /**
+     * Utility method to split the line buffer on whitespace. Like
+     * {@code split("\\s+")}, leading whitespace produces an empty first
+     * token and trailing whitespace is ignored.
+     */
+    private void tokenize() {
+        tokenCount = 0;
+        int i = 0;
+        if (lineLength > 0 && isWhitespace(line[0])) {
+            addToken(0, 0);
+        }
+        while (i < lineLength) {
+            while (i < lineLength && isWhitespace(line[i])) {
+                i++;
+            }
+            int tokenBegin = i;
+            while (i < lineLength && !isWhitespace(line[i])) {
+                i++;
+            }
+            if (i > tokenBegin) {
+                addToken(tokenBegin, i);
+            }
+        }
+    }
+
+    /**
+     * Utility method to record a token, ignoring any past MAX_TOKENS(16).
+     * @param begin Offset of the first character of the token.
+     * @param end Offset just past the last character of the token.
+     */
+    private void addToken(int begin, int end) {
+        if (tokenCount < MAX_TOKENS) {
+            tokenStart[tokenCount] = begin;
+            tokenEnd[tokenCount] = end;
+            tokenCount++;
+        }
+    }
+
+    /**
+     * Utility method to get the start offset of a token.
+     * @param index Index of the token on the line.
+     * @return The start offset, or 0 for a missing token.
+     */
+    private int start(int index) {
+        return index < tokenCount ? tokenStart[index] : 0;
+    }
+
+    /**
+     * Utility method to get the end offset of a token.
+     * @param index Index of the token on the line.
+     * @return The end offset, or 0 for a missing token.
+     */
+    private int end(int index) {
+        return index < tokenCount ? tokenEnd[index] : 0;
+    }
+
+    /**
+     * Utility method to parse part of the line buffer as a decimal integer
+     * with an optional sign.
+     * @param begin Offset of the first character.
+     * @param end Offset just past the last character.
+     * @return The number, or INVALID_NUMBER if the text is not a number
+     *         or does not fit in an int.
+     */
+    private int parseInt(int begin, int end) {
+        boolean negative = false;
+        int i = begin;
+        if (i < end && (line[i] == '-' || line[i] == '+')) {
+            negative = line[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            return INVALID_NUMBER;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(line[i], RADIX);
+            if (digit < 0) {
+                return INVALID_NUMBER;
+            }
+            value = value * RADIX + digit;
+            if (value > Integer.MAX_VALUE) {
+                return INVALID_NUMBER;
+            }
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Utility method to compare part of the line buffer with a String.
+     * @param begin Offset of the first character.
+     * @param end Offset just past the last character.
+     * @param text The text to compare with.
+     * @param ignoreCase True to compare upper-cased characters.
+     * @return True if the region and the text are equal.
+     */
+    private boolean regionEquals(int begin, int end, String text,
+                                 boolean ignoreCase) {
+        if (end - begin != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = line[begin + i];
+            if (ignoreCase) {
+                c = Character.toUpperCase(c);
+            }
+            if (c != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Utility method to check for the characters matched by the regex
+     * "\s": space, tab, new line, vertical tab, form feed and return.
+     * @param c The character to check.
+     * @return True if the character is whitespace.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' ||
+                c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,448 @@
+package scheduler;
+
+import scheduler.CalendarView.Booking;
+import scheduler.CalendarView.Day;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe implementation of the calendar, for many clients booking at
+ * the same time.
+ * <p>
+ * Events are grouped by day. Since an event is identified by its date,
+ * timeslot and location, a day holds at most Event.SLOTS_PER_DAY(18)
+ * events, one per (timeslot, location) slot. Each day is an immutable
+ * Day replaced through ConcurrentHashMap.compute, which locks only that
+ * day's bin: the duplicate check and the insert are one atomic step, so
+ * two clients can never double-book a slot, while adds and removes on
+ * different dates run in parallel. Lookups take no lock at all. While a
+ * write-ahead log is attached, each change is logged inside the compute
+ * of its day, so the changes to a day are logged in the order they are
+ * applied, and an add takes its arrival number while it holds the log's
+ * monitor, so the log also has the adds in insertion order. The day
+ * is also the interval index for overlap checks: a location has only
+ * Event.NUM_TIMESLOTS(3) slots a day, so checking a new booking against
+ * every other booking in its room is a constant-time scan.
+ * <p>
+ * After each change, the writer publishes a new immutable CalendarView
+ * through an atomic reference. Listings and snapshot() read the current
+ * view, so they never block writers and never see a half-applied change.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class ConcurrentEventCalender implements CalendarStorage {
+    private final ConcurrentHashMap<Long, Day> days; //keyed by day key
+    private final AtomicLong arrivals; //orders bookings by insertion
+    private final AtomicInteger numEvents;
+    private final AtomicReference<CalendarView> view; //latest published
+    private volatile EventLog log; //records every add and remove, or null
+
+    /**
+     * Instantiates an empty ConcurrentEventCalender.
+     */
+    public ConcurrentEventCalender() {
+        days = new ConcurrentHashMap<>();
+        arrivals = new AtomicLong();
+        numEvents = new AtomicInteger();
+        view = new AtomicReference<>(CalendarView.EMPTY);
+    }
+
+    /**
+     * Adds an event to the calendar, if it does not already exist in the
+     * calendar and does not overlap another event in the same location.
+     * The check and the insert happen atomically.
+     * @param event Event to add.
+     * @return True if event was added, false if it was not added.
+     */
+    @Override
+    public boolean add(Event event) {
+        if (insert(event, log)) {
+            numEvents.incrementAndGet();
+            publish(dayKeyOf(event));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds a batch of events in order. The batch is grouped by day, and
+     * each day is updated with a single compute no matter how many of the
+     * events fall on it, so the day's lock is taken once per batch, and a
+     * single view is published for the whole batch. While a log is
+     * attached, the events are instead inserted one at a time in batch
+     * order, so they are logged in the insertion order they are replayed
+     * in.
+     * @param events The events to add.
+     * @param count Number of events at the start of the array to add.
+     * @return For each event, true if it was added and false if it was
+     *         already in the calendar or earlier in the batch, or overlaps
+     *         one that is.
+     */
+    @Override
+    public boolean[] addAll(Event[] events, int count) {
+        EventLog currentLog = log;
+        if (currentLog != null) {
+            return addAllLogged(events, count, currentLog);
+        }
+        boolean[] isAdded = new boolean[count];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        //stable, so the events of a day stay in batch order
+        Arrays.sort(order, (a, b) -> Long.compare(dayKeyOf(events[a]),
+                dayKeyOf(events[b])));
+        long firstArrival = arrivals.getAndAdd(count) + 1;
+        long[] changedDays = new long[count];
+        int numChangedDays = 0;
+        int numAdded = 0;
+        int groupStart = 0;
+        while (groupStart < count) {
+            long dayKey = dayKeyOf(events[order[groupStart]]);
+            int groupEnd = groupStart + 1;
+            while (groupEnd < count &&
+                    dayKeyOf(events[order[groupEnd]]) == dayKey) {
+                groupEnd++;
+            }
+            int first = groupStart;
+            int last = groupEnd;
+            int[] added = new int[1];
+            days.compute(dayKey, (key, day) -> {
+                Day current = day == null ? Day.EMPTY : day;
+                for (int j = first; j < last; j++) {
+                    int index = order[j];
+                    int slot = slotOf(events[index]);
+                    if (isFree(current, slot, events[index])) {
+                        isAdded[index] = true;
+                        added[0]++;
+                        current = current.with(slot, new Booking(
+                                events[index], firstArrival + index));
+                    }
+                }
+                return added[0] == 0 ? day : current;
+            });
+            if (added[0] > 0) {
+                numAdded += added[0];
+                changedDays[numChangedDays++] = dayKey;
+            }
+            groupStart = groupEnd;
+        }
+        if (numAdded > 0) {
+            numEvents.addAndGet(numAdded);
+            publish(changedDays, numChangedDays);
+        }
+        return isAdded;
+    }
+
+    /**
+     * Utility method to add a batch of events one at a time in batch order
+     * while a log is attached, publishing a single view for the batch.
+     * @param events The events to add.
+     * @param count Number of events at the start of the array to add.
+     * @param currentLog The log to record the adds in.
+     * @return For each event, true if it was added.
+     */
+    private boolean[] addAllLogged(Event[] events, int count,
+                                   EventLog currentLog) {
+        boolean[] isAdded = new boolean[count];
+        long[] changedDays = new long[count];
+        int numAdded = 0;
+        for (int i = 0; i < count; i++) {
+            if (insert(events[i], currentLog)) {
+                isAdded[i] = true;
+                changedDays[numAdded++] = dayKeyOf(events[i]);
+            }
+        }
+        if (numAdded > 0) {
+            numEvents.addAndGet(numAdded);
+            publish(changedDays, numAdded);
+        }
+        return isAdded;
+    }
+
+    /**
+     * Removes the specified event if it is in the calendar.
+     * @param event Event to remove
+     * @return True if the event is removed, false if it is not found in
+     *         the calendar.
+     */
+    @Override
+    public boolean remove(Event event) {
+        int slot = slotOf(event);
+        boolean[] isRemoved = new boolean[1];
+        EventLog currentLog = log;
+        days.computeIfPresent(dayKeyOf(event), (dayKey, day) -> {
+            Booking booking = day.slots[slot];
+            if (booking == null) {
+                return day;
+            }
+            isRemoved[0] = true;
+            if (currentLog != null) {
+                currentLog.logRemove(booking.event);
+            }
+            return day.without(slot);
+        });
+        if (isRemoved[0]) {
+            numEvents.decrementAndGet();
+            publish(dayKeyOf(event));
+        }
+        return isRemoved[0];
+    }
+
+    /**
+     * Checks if the specified event is in the calendar, without locking,
+     * with a test of its bit in the occupancy bitmap of its day.
+     * @param event Event to check
+     * @return True if event is in calendar, False if it is not.
+     */
+    @Override
+    public boolean contains(Event event) {
+        Day day = days.get(dayKeyOf(event));
+        return day != null && (day.occupied >>> slotOf(event) & 1) != 0;
+    }
+
+    /**
+     * Gets the occupancy bitmap of a day, without locking.
+     * @param date The day.
+     * @return The bitmap of booked slots.
+     */
+    @Override
+    public int occupancyOf(Date date) {
+        Day day = days.get(Event.dayKeyOf(date));
+        return day == null ? 0 : day.occupied;
+    }
+
+    /**
+     * Getter method for the number of events in the calendar.
+     * @return The number of events in the calendar.
+     */
+    @Override
+    public int size() {
+        return numEvents.get();
+    }
+
+    /**
+     * Copies the events of the calendar in insertion order, from the
+     * latest published view.
+     * @return A new array holding every event in the calendar.
+     */
+    @Override
+    public Event[] toArray() {
+        return view.get().toArray();
+    }
+
+    /**
+     * Looks up the events that match a query in the latest published
+     * view, by date and start time, then location. The iterator is lazy
+     * and keeps reading the same view, so changes made while it is in use
+     * do not affect it.
+     * @param query The date range and filters to match.
+     * @return An iterator over the matching events.
+     */
+    @Override
+    public Iterator<Event> query(EventQuery query) {
+        return view.get().query(query);
+    }
+
+    /**
+     * Gets an immutable snapshot of the calendar without locking. The
+     * snapshot holds every change whose add or remove has returned.
+     * @return The latest published view of the calendar.
+     */
+    public CalendarView snapshot() {
+        return view.get();
+    }
+
+    /**
+     * Attaches a write-ahead log that every later successful add and remove
+     * is appended to, in the order they are applied to each day, with the
+     * adds in insertion order. Must not be called while a change is being
+     * made.
+     * @param log The log to append to, or null to stop logging.
+     */
+    @Override
+    public void setLog(EventLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Prints the calendar in insertion order.
+     * @param out The stream to print to.
+     */
+    @Override
+    public void print(PrintStream out) {
+        printEvents(out, ListingWriter.HEADER_ALL, view.get().toArray());
+    }
+
+    /**
+     * Prints the calendar sorted by event date and start time.
+     * @param out The stream to print to.
+     */
+    @Override
+    public void printByDate(PrintStream out) {
+        printEvents(out, ListingWriter.HEADER_BY_DATE,
+                view.get().toArrayByDate());
+    }
+
+    /**
+     * Prints the calendar sorted by campus and building.
+     * @param out The stream to print to.
+     */
+    @Override
+    public void printByCampus(PrintStream out) {
+        printEvents(out, ListingWriter.HEADER_BY_CAMPUS,
+                view.get().toArrayByCampus());
+    }
+
+    /**
+     * Prints the calendar sorted by department.
+     * @param out The stream to print to.
+     */
+    @Override
+    public void printByDepartment(PrintStream out) {
+        printEvents(out, ListingWriter.HEADER_BY_DEPARTMENT,
+                view.get().toArrayByDepartment());
+    }
+
+    /**
+     * Utility method to insert one event into its day, if it is free,
+     * without publishing a view. The event is logged inside the compute,
+     * so it is logged before any later change to its day.
+     * @param event Event to add.
+     * @param currentLog The log to record the add in, or null.
+     * @return True if the event was inserted.
+     */
+    private boolean insert(Event event, EventLog currentLog) {
+        int slot = slotOf(event);
+        boolean[] isAdded = new boolean[1];
+        days.compute(dayKeyOf(event), (dayKey, day) -> {
+            Day current = day == null ? Day.EMPTY : day;
+            if (!(isFree(current, slot, event))) {
+                return day;
+            }
+            isAdded[0] = true;
+            return current.with(slot, new Booking(event,
+                    nextArrival(event, currentLog)));
+        });
+        return isAdded[0];
+    }
+
+    /**
+     * Utility method to number an add in insertion order. While a log is
+     * attached, the add is logged and numbered while holding the log's
+     * monitor, which every append takes, so the adds are numbered in the
+     * order they are logged.
+     * @param event The event being added.
+     * @param currentLog The log to record the add in, or null.
+     * @return The arrival number of the add.
+     */
+    private long nextArrival(Event event, EventLog currentLog) {
+        if (currentLog == null) {
+            return arrivals.incrementAndGet();
+        }
+        synchronized (currentLog) {
+            currentLog.logAdd(event);
+            return arrivals.incrementAndGet();
+        }
+    }
+
+    /**
+     * Utility method to publish a new view with the latest state of a day.
+     * The state is read again on every attempt, so when writers of the
+     * same day race, whichever publishes last still publishes the newest
+     * state.
+     * @param dayKey The key of the changed day.
+     */
+    private void publish(long dayKey) {
+        CalendarView current;
+        CalendarView next;
+        do {
+            current = view.get();
+            next = current.with(dayKey, days.get(dayKey));
+        } while (!view.compareAndSet(current, next));
+    }
+
+    /**
+     * Utility method to publish one new view with the latest state of
+     * several days, the same way publish(long) does for one day.
+     * @param dayKeys The keys of the changed days.
+     * @param count Number of keys at the start of the array.
+     */
+    private void publish(long[] dayKeys, int count) {
+        CalendarView current;
+        CalendarView next;
+        do {
+            current = view.get();
+            next = current;
+            for (int i = 0; i < count; i++) {
+                next = next.with(dayKeys[i], days.get(dayKeys[i]));
+            }
+        } while (!view.compareAndSet(current, next));
+    }
+
+    /**
+     * Utility method to print a listing of events.
+     * @param out The stream to print to.
+     * @param header Header line of the listing.
+     * @param events Events to print, in the order to print them.
+     */
+    private static void printEvents(PrintStream out, String header,
+                                    Event[] events) {
+        if (events.length == 0) {
+            ListingWriter.printEmpty(out);
+            return;
+        }
+        ListingWriter listing = new ListingWriter();
+        listing.begin(header);
+        for (Event event : events) {
+            listing.append(event);
+        }
+        listing.end(out);
+    }
+
+    /**
+     * Utility method to check if a slot of a day can take an event: the
+     * slot must be empty and no booking of the same location may overlap
+     * the event.
+     * @param day The day of the event.
+     * @param slot The slot of the event within the day.
+     * @param event The event to check.
+     * @return True if the event can be booked, false if it cannot.
+     */
+    private static boolean isFree(Day day, int slot, Event event) {
+        if (day.slots[slot] != null) {
+            return false;
+        }
+        for (int other = slot % Event.NUM_LOCATIONS;
+             other < Event.SLOTS_PER_DAY; other += Event.NUM_LOCATIONS) {
+            Booking booking = day.slots[other];
+            if (booking != null && booking.event.overlaps(event)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Utility method to get the key of the day an event is on.
+     * @param event The event.
+     * @return The packed date of the event.
+     */
+    private static long dayKeyOf(Event event) {
+        return Math.floorDiv(event.getSlotKey(), Event.SLOTS_PER_DAY);
+    }
+
+    /**
+     * Utility method to get the slot an event takes within its day.
+     * @param event The event.
+     * @return The slot, from 0 to Event.SLOTS_PER_DAY - 1.
+     */
+    private static int slotOf(Event event) {
+        return Math.floorMod(event.getSlotKey(), Event.SLOTS_PER_DAY);
+    }
+}
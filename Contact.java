@@ -1,45 +1,223 @@
-package scheduler;
-/**
- * Represents a contact by a department and email
- * @author Dharmik Patel and Krish Patel
- */
-public class Contact {
-    private final Department department;
-    private final String email;
-
-    /**
-     * This constructor makes a Contact(email and department) for the event.
-     * @param department - The department the person is a part of
-     * @param email - The email of the person
-     */
-    public Contact(Department department, String email){
-        this.department = department;
-        this.email = email;
-    }
-    /**
-     * A getter method for the private variable department
-     * @return The department of the contact.
-     */
-    public Department getDepartment() {
-        return department;
-    }
-
-    /**
-     * Utility method to test if the email is valid. Email must end in
-     * "@rutgers.edu"
-     * @return True if the email is valid. False if it is not
-     */
-    public boolean isValid(){
-        return email.matches("[^@]+@rutgers\\.edu");
-    }
-
-    /**
-     * Overrides the toString method to return the contact in the
-     * format: [Contact: department, email]
-     * @return Returns a Contact in the specified format.
-     */
-    @Override
-    public String toString() {
-        return String.format("[Contact: %s, %s]", department, email);
-    }
-}
+package scheduler;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents a contact by a department and email
+ * @author Dharmik Patel and Krish Patel
+ */
+public class Contact {
+    public static final String DOMAINS_PROPERTY = "scheduler.email.domains";
+    private static final String DEFAULT_DOMAINS = "rutgers.edu";
+    private static final char AT = '@';
+    private static final String[] ALLOWED_DOMAINS = loadAllowedDomains();
+    private static final ConcurrentHashMap<String, PooledContact>[] POOL =
+            newPool(); //interned contacts by department ordinal, then email
+    private static final ReferenceQueue<Contact> RELEASED =
+            new ReferenceQueue<>(); //pooled contacts no event refers to
+    private final Department department;
+    private final String email;
+
+    /**
+     * This constructor makes a Contact(email and department) for the event.
+     * @param department - The department the person is a part of
+     * @param email - The email of the person
+     */
+    public Contact(Department department, String email){
+        this.department = department;
+        this.email = email;
+    }
+
+    /**
+     * A weak reference from the pool to an interned contact, which also
+     * remembers its key so the entry can be removed once it is cleared.
+     */
+    private static final class PooledContact extends WeakReference<Contact> {
+        private final int departmentOrdinal;
+        private final String email;
+
+        /**
+         * Makes a pool entry for a contact.
+         * @param contact - The contact to intern.
+         */
+        private PooledContact(Contact contact) {
+            super(contact, RELEASED);
+            departmentOrdinal = contact.department.ordinal();
+            email = contact.email;
+        }
+    }
+
+    /**
+     * Gets the shared contact for a department and email, making it the
+     * first time it is asked for. A few department contacts book most
+     * events, so sharing one Contact and one email String among all of
+     * their events saves two objects per event. The pool only holds its
+     * contacts weakly, so a contact leaves it once no event refers to it,
+     * and the contacts of rejected or cancelled events do not pile up.
+     * @param department - The department the person is a part of
+     * @param email - The email of the person
+     * @return The one Contact for that department and email.
+     */
+    public static Contact of(Department department, String email) {
+        removeReleased();
+        ConcurrentHashMap<String, PooledContact> contacts =
+                POOL[department.ordinal()];
+        while (true) {
+            PooledContact pooled = contacts.get(email);
+            Contact contact = pooled == null ? null : pooled.get();
+            if (contact != null) {
+                return contact;
+            }
+            contact = new Contact(department, email);
+            PooledContact entry = new PooledContact(contact);
+            if (pooled == null ? contacts.putIfAbsent(email, entry) == null :
+                    contacts.replace(email, pooled, entry)) {
+                return contact;
+            }
+        }
+    }
+
+    /**
+     * Utility method to remove the pool entries of the contacts that have
+     * been garbage collected, unless another contact replaced them.
+     */
+    private static void removeReleased() {
+        PooledContact released = (PooledContact) RELEASED.poll();
+        while (released != null) {
+            POOL[released.departmentOrdinal].remove(released.email,
+                    released);
+            released = (PooledContact) RELEASED.poll();
+        }
+    }
+
+    /**
+     * A getter method for the private variable department
+     * @return The department of the contact.
+     */
+    public Department getDepartment() {
+        return department;
+    }
+
+    /**
+     * A getter method for the private variable email
+     * @return The email of the contact.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Utility method to test if the email is valid. Email must be a
+     * non-empty name without "@", then "@" and one of the allowed domains,
+     * "rutgers.edu" unless the DOMAINS_PROPERTY system property lists
+     * others, separated by commas. Same as matching "[^@]+@rutgers\\.edu",
+     * but with a single scan of the email and no allocation.
+     * @return True if the email is valid. False if it is not
+     */
+    public boolean isValid(){
+        return isValidEmail(email);
+    }
+
+    /**
+     * Utility method to test if an email is valid the way isValid does,
+     * before making a Contact for it.
+     * @param email - The email to test.
+     * @return True if the email is valid. False if it is not
+     */
+    public static boolean isValidEmail(String email) {
+        int at = email.indexOf(AT);
+        if (at < 1 || email.indexOf(AT, at + 1) >= 0) {
+            return false;
+        }
+        int domainLength = email.length() - at - 1;
+        for (String domain : ALLOWED_DOMAINS) {
+            if (domain.length() == domainLength &&
+                    email.regionMatches(at + 1, domain, 0, domainLength)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Utility method to make one empty pool per department.
+     * @return The pools, by department ordinal.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ConcurrentHashMap<String, PooledContact>[] newPool() {
+        ConcurrentHashMap<String, PooledContact>[] pool =
+                new ConcurrentHashMap[Department.values().length];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new ConcurrentHashMap<>();
+        }
+        return pool;
+    }
+
+    /**
+     * Utility method to read the allowed email domains once, from the
+     * DOMAINS_PROPERTY system property or the default "rutgers.edu".
+     * @return The allowed domains, compared case-sensitively.
+     */
+    private static String[] loadAllowedDomains() {
+        String[] domains = System.getProperty(DOMAINS_PROPERTY,
+                DEFAULT_DOMAINS).split(",");
+        int count = 0;
+        for (String domain : domains) {
+            if (!domain.trim().isEmpty()) {
+                domains[count++] = domain.trim();
+            }
+        }
+        return count == 0 ? new String[] {DEFAULT_DOMAINS} :
+                Arrays.copyOf(domains, count);
+    }
+
+    /**
+     * Checks if two contacts have the same department and email.
+     * @param obj The object to compare with.
+     * @return True if obj is a Contact with the same department and email.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Contact)) {
+            return false;
+        }
+        Contact other = (Contact) obj;
+        return department == other.department && email.equals(other.email);
+    }
+
+    /**
+     * Hash code consistent with equals.
+     * @return The hash of the department and email.
+     */
+    @Override
+    public int hashCode() {
+        return department.hashCode() * 31 + email.hashCode();
+    }
+
+    /**
+     * Overrides the toString method to return the contact in the
+     * format: [Contact: department, email]
+     * @return Returns a Contact in the specified format.
+     */
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the contact to {@code builder} in the same format as
+     * toString, without going through String.format.
+     * @param builder The builder to append to.
+     * @return The same builder, for chaining.
+     */
+    public StringBuilder appendTo(StringBuilder builder) {
+        return builder.append("[Contact: ").append(department)
+                .append(", ").append(email).append(']');
+    }
+}
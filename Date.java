@@ -1,266 +1,430 @@
-package scheduler;
-import java.util.Calendar;
-/**
- * Represents a specific instant of a given date.
- * @author Dharmik Patel and Krish Patel
- */
-public class Date implements Comparable<Date> {
-    public static final int QUADRENNIAL = 4;
-    public static final int CENTENNIAL = 100;
-    public static final int QUATERCENTENNIAL = 400;
-    public static final Date PRESENT_DATE = Date.getThePresentDay();
-    public static final Date SIX_MONTHS_IN_FUTURE_DATE =
-            Date.getSixMonthInFutureDate();
-    private final int year;
-    private final Month month;
-    private final int day;
-
-    /**
-     * Allocates a Date object and initializes it so that it represents
-     * the day specified by the given String.
-     *
-     * @param date Takes in a String date: MONTH/DAY/YEAR;
-     *             Example: 09/06/2023
-     */
-    public Date(String date) {
-        String[] tokens = date.split("/");
-        this.year = Integer.parseInt(tokens[2]);
-        int monthNumber = Integer.parseInt(tokens[0]);
-        if (monthNumber <= Month.MAX_NUM_OF_MONTH && monthNumber >=
-                Month.MIN_NUM_OF_MONTH) {
-            this.month = Month.values()[monthNumber - 1];
-        } else {
-            this.month = Month.NON_A_MONTH;
-        }
-        this.day = Integer.parseInt(tokens[1]);
-    }
-
-    /**
-     * Template code to format and print the test results to the command line.
-     * @param expectedOutput The correct output of this test.
-     * @param testDate The date that is being tested right now.
-     * @param outputMessage The description of the test.
-     */
-    private static void testResult(boolean expectedOutput, Date testDate,
-                                   String outputMessage) {
-        boolean actualOutput = testDate.isValid();
-        System.out.println("\t" + outputMessage + " " + testDate);
-        if (expectedOutput == actualOutput)
-            System.out.printf("\t\t%s | Expected: %s, Got: %s\n",
-                    "Test Passed!", expectedOutput, actualOutput);
-        else
-            System.out.printf("\t\t%s | Expected: %s, Got: %s\n",
-                    "Test Failed!", expectedOutput, actualOutput);
-    }
-
-    /**
-     * Test case 1: checks if days that are in february & are leap years have
-     * a day that is:
-     * <p>
-     * {@code Month.MIN_NUM_OF_DAYS <= day <= Month.DAYS_IN_FEB_LEAP};
-     */
-    private static void testDaysInFebLeap() {
-        Date testDate1 = new Date("2/30/2024");
-        Date testDate2 = new Date("2/-1/2024");
-        Date testDate3 = new Date("2/29/2024");
-        Date testDate4 = new Date("2/1/2024");
-        Date testDate5 = new Date("2/15/2024");
-        Date testDate6 = new Date("2/0/2024");
-        boolean expectedFalse = false;
-        boolean expectedTrue = true;
-        System.out.println("**Testing Days in Feb with Leap Year");
-        testResult(expectedFalse, testDate1, "Days is more than 29");
-        testResult(expectedFalse, testDate2, "Day is a negative number");
-        testResult(expectedTrue, testDate3, "Day is in valid range");
-        testResult(expectedTrue, testDate4, "Day is in valid range");
-        testResult(expectedTrue, testDate5, "Day is in valid range");
-        testResult(expectedFalse, testDate6, "Day is 0");
-    }
-
-    /**
-     * Test case 2: checks if days that are in february & are not leap years
-     * have a day that is:
-     * <p>
-     * {@code Month.MIN_NUM_OF_DAYS <= day <= Month.DAYS_IN_FEB_NON_LEAP};
-     */
-    private static void testDaysInFebNonLeap() {
-        Date testDate1 = new Date("2/29/2023");
-        Date testDate3 = new Date("2/28/2023");
-        Date testDate4 = new Date("2/9/2023");
-        Date testDate5 = new Date("2/1/2023");
-        Date testDate6 = new Date("2/0/2023");
-        Date testDate7 = new Date("2/-190/2023");
-        boolean expectedFalse = false;
-        boolean expectedTrue = true;
-        System.out.println("**Testing Days in Feb with out Leap Year");
-        testResult(expectedFalse, testDate1, "Day is more than 28");
-        testResult(expectedTrue, testDate3, "Day is in valid range");
-        testResult(expectedTrue, testDate4, "Day is in valid range");
-        testResult(expectedTrue, testDate5, "Day is in valid range");
-        testResult(expectedFalse, testDate6, "Day is 0");
-        testResult(expectedFalse, testDate7, "Day is negative");
-    }
-
-    /**
-     * Test case 3: Checks if months are in range.
-     * <p>
-     * {@code Month.MIN_NUM_OF_MONTH <= month <= MAX_NUM_OF_MONTH}
-     */
-    private static void testMonthOutOfRange() {
-        Date testDate1 = new Date("-1/15/2023");
-        Date testDate2 = new Date("0/15/2023");
-        Date testDate3 = new Date("1/15/2024");
-        Date testDate4 = new Date("2/15/2024");
-        Date testDate5 = new Date("15/15/2024");
-        boolean expectedFalse = false;
-        boolean expectedTrue = true;
-        System.out.println("**Testing Months are in range");
-        testResult(expectedFalse, testDate1, "Month is Negative");
-        testResult(expectedFalse, testDate2, "Month is zero");
-        testResult(expectedTrue, testDate3, "Month is in valid range");
-        testResult(expectedTrue, testDate4, "Month is in valid range");
-        testResult(expectedFalse, testDate5, "Month is greater than 12");
-    }
-
-    /**
-     * Used to test if a given date is valid. Handles leap years as well.
-     * See test case methods for more specifications.
-     *
-     * @return True if the date is a valid calendar date. False if it is not.
-     */
-    public boolean isValid() {
-        if (month.equals(Month.FEBRUARY)) {
-            if (isLeapYear()) {
-                return day >= Month.MIN_NUM_OF_DAYS &&
-                        day <= Month.DAYS_IN_FEB_LEAP;
-            } else {
-                return day >= Month.MIN_NUM_OF_DAYS &&
-                        day <= Month.DAYS_IN_FEB_NON_LEAP;
-            }
-        } else if (month.equals(Month.NON_A_MONTH)) {
-            return false;
-        } else {
-            return day >= Month.MIN_NUM_OF_DAYS &&
-                    day <= month.getMaxAmountOfDays();
-        }
-    }
-
-    /**
-     * Used to test if given date occurs before or at 6 months in the future
-     * @return True if given date occurs less than SIX_MONTHS_IN_FUTURE_DATE.
-     * False if given date occurs more than SIX_MONTHS_IN_FUTURE_DATE.
-     */
-    public boolean isLessThanDateSixMonthsInFuture() {
-        return this.compareTo(SIX_MONTHS_IN_FUTURE_DATE) <= 0;
-    }
-
-    /**
-     * Used to test if given date occurs in the future.
-     * @return True if given date occurs after PRESENT_DATE.
-     * False if given date occurs before PRESENT_DATE.
-     */
-    public boolean isMoreThanPresentDate() {
-        return this.compareTo(PRESENT_DATE) > 0;
-    }
-    /**
-     * Utility method to set the PRESENT_DATE
-     * @return Today's Date
-     */
-    private static Date getThePresentDay(){
-        Calendar today = Calendar.getInstance();
-        int todayDay = today.get(Calendar.DATE);
-        int todayMonth = today.get(Calendar.MONTH)+1;
-        int todayYear = today.get(Calendar.YEAR);
-        return new Date(String.format("%d/%d/%d", todayMonth, todayDay,
-                todayYear));
-    }
-    /**
-     * Utility method to set the SIX_MONTHS_IN_FUTURE_DATE
-     * @return 6 Months in future date
-     */
-    private static Date getSixMonthInFutureDate(){
-        Calendar today = Calendar.getInstance();
-        final int sixMonths = 6;
-        today.add(Calendar.MONTH, sixMonths);
-        int todayDay = today.get(Calendar.DATE);
-        int todayMonth = today.get(Calendar.MONTH)+1;
-        int todayYear = today.get(Calendar.YEAR);
-        return new Date(String.format("%d/%d/%d", todayMonth, todayDay,
-                todayYear));
-    }
-    /**
-     * Checks if the date occurs in a leap year.
-     *
-     * @return True if year is a leap year. False if year is not a leap year.
-     */
-    private boolean isLeapYear() {
-        if (year % QUADRENNIAL == 0) {
-            if (year % CENTENNIAL == 0) {
-                if (year % QUATERCENTENNIAL == 0) {
-                    return true;
-                } else {
-                    return false;
-                }
-            } else {
-                return true;
-            }
-        } else {
-            return false;
-        }
-    }
-
-    /**
-     * Checks if two dates are equal.
-     *
-     * @return Returns true if the day, month, and year are equal.
-     */
-    @Override
-    public boolean equals(Object obj) {
-        if (obj instanceof Date) {
-            Date d2 = (Date) obj;
-            return this.day == d2.day && this.month == d2.month &&
-                    this.year == d2.year;
-        }
-        return false;
-    }
-
-    /**
-     * Overrides the default toString method.
-     * @return Returns a string in the format [Event Date: MONTH/DAY/YEAR]
-     */
-    @Override
-    public String toString() {
-        return String.format("[Event Date: %02d/%02d/%d]",
-                month.ordinal() + 1, day, year);
-    }
-    /**
-     * Compares 2 dates. Let this instance be "date1".
-     * @param date2 the object to be compared.
-     * @return Returns -1 if date1 occurs before date2.
-     * Returns 0 if date1 is same as date2.
-     * Returns +1 if date 1 occurs after date2.
-     */
-    @Override
-    public int compareTo(Date date2) {
-        if (this.year > date2.year) {
-            return 1;
-        } else if (this.year < date2.year) {
-            return -1;
-        } else {
-            if (!(this.month.equals(date2.month))) {
-                return this.month.compareTo(date2.month);
-            } else {
-                return Integer.compare(this.day, date2.day);
-            }
-        }
-    }
-    /**
-     * testbed main, to test the isValid() method
-     * @param args command line args
-     */
-    public static void main(String[] args) {
-        testDaysInFebLeap();
-        testDaysInFebNonLeap();
-        testMonthOutOfRange();
-    }
-}
+package scheduler;
+import java.util.Calendar;
+/**
+ * Represents a specific instant of a given date.
+ * <p>
+ * The month and day are kept packed with the year into a single long key
+ * that sorts the same way the dates do, so ordering, equality, hashing
+ * and the range checks compare one primitive instead of three fields.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class Date implements Comparable<Date> {
+    public static final int QUADRENNIAL = 4;
+    public static final int CENTENNIAL = 100;
+    public static final int QUATERCENTENNIAL = 400;
+    private static final Month[] MONTHS = Month.values();
+    private static final int DAY_BITS = 32;
+    private static final int MONTH_BITS = 4;
+    private static final int YEAR_SHIFT = DAY_BITS + MONTH_BITS;
+    private static final int MONTH_MASK = (1 << MONTH_BITS) - 1;
+    private static final long DAY_MASK = (1L << DAY_BITS) - 1;
+    private static final int MAX_KEY_YEAR =
+            (1 << (Long.SIZE - YEAR_SHIFT - 1)) - 1;
+    private static final int CACHE_SIZE = 512; //a power of two
+    private static final Date[] CACHE = new Date[CACHE_SIZE];
+    public static final Date PRESENT_DATE = Date.getThePresentDay();
+    public static final Date SIX_MONTHS_IN_FUTURE_DATE =
+            Date.getSixMonthInFutureDate();
+    private final int year;
+    private final long key; //year, month ordinal and day, in sort order
+
+    /**
+     * Allocates a Date object and initializes it so that it represents
+     * the day specified by the given String.
+     *
+     * @param date Takes in a String date: MONTH/DAY/YEAR;
+     *             Example: 09/06/2023
+     */
+    public Date(String date) {
+        String[] tokens = date.split("/");
+        this.year = Integer.parseInt(tokens[2]);
+        this.key = packKey(year, toMonth(Integer.parseInt(tokens[0])),
+                Integer.parseInt(tokens[1]));
+    }
+
+    /**
+     * Allocates a Date object from already parsed numbers, in the same
+     * order as the String form MONTH/DAY/YEAR.
+     *
+     * @param monthNumber The month, 1 for January through 12 for December
+     * @param day The day of the month
+     * @param year The year
+     */
+    public Date(int monthNumber, int day, int year) {
+        this.year = year;
+        this.key = packKey(year, toMonth(monthNumber), day);
+    }
+
+    /**
+     * Gets a Date for the given numbers, reusing a recently made one when
+     * possible. Dates are immutable, so a small cache indexed by the hash
+     * of the numbers lets the many commands for the same few dates share
+     * them instead of allocating a Date per line.
+     *
+     * @param monthNumber The month, 1 for January through 12 for December
+     * @param day The day of the month
+     * @param year The year
+     * @return A Date equal to {@code new Date(monthNumber, day, year)}.
+     */
+    public static Date valueOf(int monthNumber, int day, int year) {
+        int index = ((year * Month.MAX_NUM_OF_MONTH + monthNumber) * 31 +
+                day) & (CACHE_SIZE - 1);
+        Date cached = CACHE[index];
+        if (cached != null && cached.year == year &&
+                cached.getDay() == day &&
+                cached.getMonth() == toMonth(monthNumber)) {
+            return cached;
+        }
+        Date date = new Date(monthNumber, day, year);
+        CACHE[index] = date;
+        return date;
+    }
+
+    /**
+     * Utility method to pack a date into its sort key: the year in the
+     * high bits, then the month ordinal, then the day with its sign bit
+     * flipped so negative days still sort first. Years too large for the
+     * key are clamped; compareTo and equals fall back to the year field
+     * for those.
+     * @param year The year
+     * @param month The month
+     * @param day The day of the month
+     * @return The key.
+     */
+    private static long packKey(int year, Month month, int day) {
+        long keyYear = Math.max(-MAX_KEY_YEAR - 1,
+                Math.min(year, MAX_KEY_YEAR));
+        return keyYear << YEAR_SHIFT |
+                (long) month.ordinal() << DAY_BITS |
+                ((day ^ Integer.MIN_VALUE) & DAY_MASK);
+    }
+
+    /**
+     * Utility method to map a month number to its Month.
+     * @param monthNumber The month, 1 for January through 12 for December
+     * @return The matching Month, or Month.NON_A_MONTH if out of range.
+     */
+    private static Month toMonth(int monthNumber) {
+        if (monthNumber <= Month.MAX_NUM_OF_MONTH && monthNumber >=
+                Month.MIN_NUM_OF_MONTH) {
+            return MONTHS[monthNumber - 1];
+        }
+        return Month.NON_A_MONTH;
+    }
+
+    /**
+     * Getter method to get the field: year.
+     * @return the year of the date
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * Getter method to get the field: month.
+     * @return the month of the date
+     */
+    public Month getMonth() {
+        return MONTHS[(int) (key >>> DAY_BITS) & MONTH_MASK];
+    }
+
+    /**
+     * Getter method to get the field: day.
+     * @return the day of the month of the date
+     */
+    public int getDay() {
+        return (int) key ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * Getter method for the packed sort key of the date.
+     * @return A key that orders dates the same way compareTo does.
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * Template code to format and print the test results to the command line.
+     * @param expectedOutput The correct output of this test.
+     * @param testDate The date that is being tested right now.
+     * @param outputMessage The description of the test.
+     */
+    private static void testResult(boolean expectedOutput, Date testDate,
+                                   String outputMessage) {
+        boolean actualOutput = testDate.isValid();
+        System.out.println("\t" + outputMessage + " " + testDate);
+        if (expectedOutput == actualOutput)
+            System.out.printf("\t\t%s | Expected: %s, Got: %s\n",
+                    "Test Passed!", expectedOutput, actualOutput);
+        else
+            System.out.printf("\t\t%s | Expected: %s, Got: %s\n",
+                    "Test Failed!", expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test case 1: checks if days that are in february & are leap years have
+     * a day that is:
+     * <p>
+     * {@code Month.MIN_NUM_OF_DAYS <= day <= Month.DAYS_IN_FEB_LEAP};
+     */
+    private static void testDaysInFebLeap() {
+        Date testDate1 = new Date("2/30/2024");
+        Date testDate2 = new Date("2/-1/2024");
+        Date testDate3 = new Date("2/29/2024");
+        Date testDate4 = new Date("2/1/2024");
+        Date testDate5 = new Date("2/15/2024");
+        Date testDate6 = new Date("2/0/2024");
+        boolean expectedFalse = false;
+        boolean expectedTrue = true;
+        System.out.println("**Testing Days in Feb with Leap Year");
+        testResult(expectedFalse, testDate1, "Days is more than 29");
+        testResult(expectedFalse, testDate2, "Day is a negative number");
+        testResult(expectedTrue, testDate3, "Day is in valid range");
+        testResult(expectedTrue, testDate4, "Day is in valid range");
+        testResult(expectedTrue, testDate5, "Day is in valid range");
+        testResult(expectedFalse, testDate6, "Day is 0");
+    }
+
+    /**
+     * Test case 2: checks if days that are in february & are not leap years
+     * have a day that is:
+     * <p>
+     * {@code Month.MIN_NUM_OF_DAYS <= day <= Month.DAYS_IN_FEB_NON_LEAP};
+     */
+    private static void testDaysInFebNonLeap() {
+        Date testDate1 = new Date("2/29/2023");
+        Date testDate3 = new Date("2/28/2023");
+        Date testDate4 = new Date("2/9/2023");
+        Date testDate5 = new Date("2/1/2023");
+        Date testDate6 = new Date("2/0/2023");
+        Date testDate7 = new Date("2/-190/2023");
+        boolean expectedFalse = false;
+        boolean expectedTrue = true;
+        System.out.println("**Testing Days in Feb with out Leap Year");
+        testResult(expectedFalse, testDate1, "Day is more than 28");
+        testResult(expectedTrue, testDate3, "Day is in valid range");
+        testResult(expectedTrue, testDate4, "Day is in valid range");
+        testResult(expectedTrue, testDate5, "Day is in valid range");
+        testResult(expectedFalse, testDate6, "Day is 0");
+        testResult(expectedFalse, testDate7, "Day is negative");
+    }
+
+    /**
+     * Test case 3: Checks if months are in range.
+     * <p>
+     * {@code Month.MIN_NUM_OF_MONTH <= month <= MAX_NUM_OF_MONTH}
+     */
+    private static void testMonthOutOfRange() {
+        Date testDate1 = new Date("-1/15/2023");
+        Date testDate2 = new Date("0/15/2023");
+        Date testDate3 = new Date("1/15/2024");
+        Date testDate4 = new Date("2/15/2024");
+        Date testDate5 = new Date("15/15/2024");
+        boolean expectedFalse = false;
+        boolean expectedTrue = true;
+        System.out.println("**Testing Months are in range");
+        testResult(expectedFalse, testDate1, "Month is Negative");
+        testResult(expectedFalse, testDate2, "Month is zero");
+        testResult(expectedTrue, testDate3, "Month is in valid range");
+        testResult(expectedTrue, testDate4, "Month is in valid range");
+        testResult(expectedFalse, testDate5, "Month is greater than 12");
+    }
+
+    /**
+     * Used to test if a given date is valid. Handles leap years as well.
+     * See test case methods for more specifications.
+     *
+     * @return True if the date is a valid calendar date. False if it is not.
+     */
+    public boolean isValid() {
+        Month month = getMonth();
+        int day = getDay();
+        if (month.equals(Month.FEBRUARY)) {
+            if (isLeapYear()) {
+                return day >= Month.MIN_NUM_OF_DAYS &&
+                        day <= Month.DAYS_IN_FEB_LEAP;
+            } else {
+                return day >= Month.MIN_NUM_OF_DAYS &&
+                        day <= Month.DAYS_IN_FEB_NON_LEAP;
+            }
+        } else if (month.equals(Month.NON_A_MONTH)) {
+            return false;
+        } else {
+            return day >= Month.MIN_NUM_OF_DAYS &&
+                    day <= month.getMaxAmountOfDays();
+        }
+    }
+
+    /**
+     * Gets the day after a valid date, rolling over to the next month and
+     * year as needed.
+     * @return The next calendar date.
+     */
+    public Date nextDay() {
+        int monthNumber = getMonth().ordinal() + 1;
+        Date next = valueOf(monthNumber, getDay() + 1, year);
+        if (next.isValid()) {
+            return next;
+        } else if (monthNumber < Month.MAX_NUM_OF_MONTH) {
+            return valueOf(monthNumber + 1, Month.MIN_NUM_OF_DAYS, year);
+        }
+        return valueOf(Month.MIN_NUM_OF_MONTH, Month.MIN_NUM_OF_DAYS,
+                year + 1);
+    }
+
+    /**
+     * Used to test if given date occurs before or at 6 months in the future
+     * @return True if given date occurs less than SIX_MONTHS_IN_FUTURE_DATE.
+     * False if given date occurs more than SIX_MONTHS_IN_FUTURE_DATE.
+     */
+    public boolean isLessThanDateSixMonthsInFuture() {
+        return this.compareTo(SIX_MONTHS_IN_FUTURE_DATE) <= 0;
+    }
+
+    /**
+     * Used to test if given date occurs in the future.
+     * @return True if given date occurs after PRESENT_DATE.
+     * False if given date occurs before PRESENT_DATE.
+     */
+    public boolean isMoreThanPresentDate() {
+        return this.compareTo(PRESENT_DATE) > 0;
+    }
+    /**
+     * Utility method to set the PRESENT_DATE
+     * @return Today's Date
+     */
+    private static Date getThePresentDay(){
+        Calendar today = Calendar.getInstance();
+        int todayDay = today.get(Calendar.DATE);
+        int todayMonth = today.get(Calendar.MONTH)+1;
+        int todayYear = today.get(Calendar.YEAR);
+        return new Date(todayMonth, todayDay, todayYear);
+    }
+    /**
+     * Utility method to set the SIX_MONTHS_IN_FUTURE_DATE
+     * @return 6 Months in future date
+     */
+    private static Date getSixMonthInFutureDate(){
+        Calendar today = Calendar.getInstance();
+        final int sixMonths = 6;
+        today.add(Calendar.MONTH, sixMonths);
+        int todayDay = today.get(Calendar.DATE);
+        int todayMonth = today.get(Calendar.MONTH)+1;
+        int todayYear = today.get(Calendar.YEAR);
+        return new Date(todayMonth, todayDay, todayYear);
+    }
+    /**
+     * Checks if the date occurs in a leap year.
+     *
+     * @return True if year is a leap year. False if year is not a leap year.
+     */
+    private boolean isLeapYear() {
+        if (year % QUADRENNIAL == 0) {
+            if (year % CENTENNIAL == 0) {
+                if (year % QUATERCENTENNIAL == 0) {
+                    return true;
+                } else {
+                    return false;
+                }
+            } else {
+                return true;
+            }
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Checks if two dates are equal.
+     *
+     * @return Returns true if the day, month, and year are equal.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof Date) {
+            Date d2 = (Date) obj;
+            return this.key == d2.key && this.year == d2.year;
+        }
+        return false;
+    }
+
+    /**
+     * Overrides the default hashCode method, consistent with equals.
+     * @return Returns a hash of the packed key.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key);
+    }
+
+    /**
+     * Overrides the default toString method.
+     * @return Returns a string in the format [Event Date: MONTH/DAY/YEAR]
+     */
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the date to {@code builder} in the same format as toString,
+     * without going through String.format.
+     * @param builder The builder to append to.
+     * @return The same builder, for chaining.
+     */
+    public StringBuilder appendTo(StringBuilder builder) {
+        builder.append("[Event Date: ");
+        appendTwoDigits(builder, getMonth().ordinal() + 1).append('/');
+        appendTwoDigits(builder, getDay()).append('/');
+        return builder.append(year).append(']');
+    }
+
+    /**
+     * Utility method to append a number padded with a leading zero to two
+     * digits, the same as the "%02d" format.
+     * @param builder The builder to append to.
+     * @param value The number to append.
+     * @return The same builder, for chaining.
+     */
+    public static StringBuilder appendTwoDigits(StringBuilder builder,
+                                                int value) {
+        final int smallestTwoDigitNumber = 10;
+        if (value >= 0 && value < smallestTwoDigitNumber) {
+            builder.append('0');
+        }
+        return builder.append(value);
+    }
+    /**
+     * Compares 2 dates. Let this instance be "date1".
+     * @param date2 the object to be compared.
+     * @return Returns -1 if date1 occurs before date2.
+     * Returns 0 if date1 is same as date2.
+     * Returns +1 if date 1 occurs after date2.
+     */
+    @Override
+    public int compareTo(Date date2) {
+        if (this.year != date2.year &&
+                (this.isYearClamped() || date2.isYearClamped())) {
+            return Integer.compare(this.year, date2.year);
+        }
+        return Long.compare(this.key, date2.key);
+    }
+
+    /**
+     * Utility method to check if the year is too large for the key.
+     * @return True if the key holds a clamped year.
+     */
+    private boolean isYearClamped() {
+        return year > MAX_KEY_YEAR || year < -MAX_KEY_YEAR - 1;
+    }
+    /**
+     * testbed main, to test the isValid() method
+     * @param args command line args
+     */
+    public static void main(String[] args) {
+        testDaysInFebLeap();
+        testDaysInFebNonLeap();
+        testMonthOutOfRange();
+    }
+}
@@ -1,285 +1,504 @@
-package scheduler;
-
-/**
- * Represents a specific event booked by the user.
- * @author Dharmik Patel and Krish Patel
- */
-public class Event implements Comparable<Event> {
-
-    public static final int MAX_DURATION = 120;
-    public static final int MIN_DURATION = 30;
-
-    private static final int MAX_MIN_IN_A_HOUR = 60;
-    private final Date date;
-    private final Timeslot startTime;
-    private final Location location;
-    private final Contact contact; //include the department name and email
-    private final int duration; //in minutes
-
-    /**
-     * This constructor makes a INCOMPLETE EVENT (without Contact and
-     * Duration).
-     * <p>
-     * Only use to make an event to compare an event to see if it already
-     * exists. The contact and department do not matter in this case
-     * because an Event-to-Event comparisons are only rely on date,
-     * timeslot, and location.
-     * @param date - specific date of the event
-     * @param startTime - Timeslot of the event
-     * @param location - Location of the event
-     */
-    public Event(Date date, Timeslot startTime, Location location){
-        this.date = date;
-        this.startTime = startTime;
-        this.location = location;
-        this.contact = null;
-        this.duration = 0;
-    }
-    /**
-     * This constructor makes a complete event.
-     * @param date - specific date of the event
-     * @param startTime - Timeslot of the event
-     * @param location - Location of the event
-     * @param contact - Department and Email of the person leading the event
-     * @param duration - the length of the event
-     */
-    public Event(Date date, Timeslot startTime, Location location,
-                 Contact contact, int duration) {
-        this.date = date;
-        this.startTime = startTime;
-        this.location = location;
-        this.contact = contact;
-        this.duration = duration;
-    }
-
-    /**
-     * Compares {@code this Event} and {@code anotherEvent} by date and
-     * timeslots.
-     * @param anotherEvent the event to be compared.
-     * @return  0 if {@code this Event} occurs at same time as
-     *          {@code anotherEvent};
-     *          -1 if {@code this Event} occurs before
-     *          {@code anotherEvent};
-     *          +1 if {@code this Event} occurs after
-     *          {@code anotherEvent};
-     */
-    @Override
-    public int compareTo(Event anotherEvent) {
-        if (date.equals(anotherEvent.date)) {
-            return startTime.compareTo(anotherEvent.startTime);
-        } else {
-            return date.compareTo(anotherEvent.date);
-        }
-    }
-
-    /**
-     * Compares {@code this Event} and {@code anotherEvent} by campus and
-     * building names lexicographically.
-     * Depends fully on the oder of declaration of the constants in the
-     * {@code Location Enum Class}
-     * @param anotherEvent the event to be compared.
-     * @return  0 if {@code this Event} occurs on same campus and building
-     *          {@code anotherEvent};
-     *          -1 if {@code this Event} location is lexicographically less
-     *          than {@code anotherEvent} location;
-     *          +1 if {@code this Event} location is lexicographically greater
-     *          than {@code anotherEvent} location;
-     */
-    public int compareToByCampus(Event anotherEvent) {
-        return location.compareTo(anotherEvent.location);
-    }
-
-    /**
-     * Compares {@code this Event} and {@code anotherEvent} by department
-     * names lexicographically.
-     * Depends fully on the oder of declaration of the constants in the
-     * {@code Department Enum Class}
-     * @param anotherEvent the event to be compared.
-     * @return  0 if {@code this Event} occurs for the same department
-     *          {@code anotherEvent};
-     *          -1 if {@code this Event} department is lexicographically
-     *          less than {@code anotherEvent} department;
-     *          +1 if {@code this Event} department is lexicographically
-     *          greater than {@code anotherEvent} department;
-     */
-    public int compareToByDepartment(Event anotherEvent) {
-        return contact.getDepartment().compareTo(
-                anotherEvent.contact.getDepartment());
-    }
-
-    /**
-     * Compares {@code this Event} and {@code objAnother}. Result is true if
-     * and only if {@code objAnother}
-     * is an Event object and has the same date, timeslot and location as
-     * {@code this Event}.
-     * @param  objAnother the Object to compare to
-     * @return True if the objects are equal. False if the objects are not
-     *          equal or the object is not instance of Event Class
-     */
-    @Override
-    public boolean equals(Object objAnother) {
-        if (objAnother instanceof Event) {
-            Event eventToCompare = (Event) objAnother;
-            return this.date.equals(eventToCompare.date) &&
-                    this.startTime.equals(eventToCompare.startTime) &&
-                    this.location.equals(eventToCompare.location);
-        }
-        return false;
-    }
-
-    /**
-     * Returns a String representation of {@code this Event}.
-     * Format: [Date] [Start Time] [End Time] Building Code
-     *         (Building Name, Campus) [Department, email]
-     * @return The properly formatted event.
-     */
-    @Override
-    public String toString() {
-        return String.format("%s %s %s %s %s", date, startTime,
-                getEndTime(), location, contact);
-    }
-
-    /**
-     * Adds duration to start time, and deals with overflow.
-     * Format: [End: Hour:Min Locale]
-     * @return Returns string representation of the end time in the proper
-     *         format.
-     */
-    private String getEndTime() {
-        int endMin = startTime.getMinute() + duration % MAX_MIN_IN_A_HOUR;
-        int endHour = startTime.getHour() + duration / MAX_MIN_IN_A_HOUR;
-        while (!(endMin < MAX_MIN_IN_A_HOUR)) {
-            endMin -= 60;
-            endHour++;
-        }
-        //endHour%=MAX_HOUR;
-        String locale = Timeslot.LOCALE_PM;
-        final int hourToSwitchLocale = 12;
-        if (startTime.equals(Timeslot.MORNING) &&
-                endHour < hourToSwitchLocale) {
-            locale = Timeslot.LOCALE_AM;
-        }
-        return String.format("[End: %d:%02d %s]", endHour, endMin, locale);
-    }
-
-    /**
-     * Test Case #1: Tests if the equals method works
-     * when two events are completely different.
-     * <p>
-     * The contact and durations do not matter, because
-     * they are not used for comparisons (they do not
-     * indicate if two events happen at the same time).
-     */
-    private static void testTwoCompletelyDifferentEvents() {
-        Event e1 = new Event(new Date("09/06/2023"), Timeslot.AFTERNOON,
-                Location.HLL114, new Contact(Department.ITI,
-                "cs@rutgers.edu"), 60);
-        Event e2 = new Event(new Date("03/06/2021"), Timeslot.MORNING,
-                Location.ARC103, new Contact(Department.CS,
-                "hi@rutgers.edu"), 60);
-        boolean expectedOutput = false; //define expected output
-        boolean actualOutput = e1.equals(e2);
-        //call equals method to get actual output
-        System.out.println("**Test #1: 2 completely different events");
-        testResults(expectedOutput, actualOutput);
-    }
-
-    /**
-     * Test Case #2: Tests if the equals method works
-     * when 2 dates are the same, but the timeslots are different.
-     * In this test case, the value of the locations does not matter
-     * because of the order of comparisons in the equals method.
-     * <p>
-     * The contact and durations do not matter, because
-     * they are not used for comparisons (they do not
-     * indicate if two events happen at the same time).
-     */
-    private static void testTwoDatesSame() {
-        Event e1 = new Event(new Date("09/06/2023"), Timeslot.AFTERNOON,
-                Location.HLL114, new Contact(Department.ITI,
-                "cs@rutgers.edu"), 60);
-        Event e2 = new Event(new Date("09/06/2023"), Timeslot.MORNING,
-                Location.ARC103, new Contact(Department.CS,
-                "hi@rutgers.edu"), 60);
-        boolean expectedOutput = false; //define expected output
-        boolean actualOutput = e1.equals(e2);
-        //call equals method to get actual output
-        System.out.println("**Test #2: same dates, different timeslots");
-        testResults(expectedOutput, actualOutput);
-    }
-
-    /**
-     * Test Case #3: Tests if the equals method works
-     * when 2 dates are the same, 2 timeslots are the same, but the
-     * locations are different.
-     * <p>
-     * The contact and durations do not matter, because
-     * they are not used for comparisons (they do not
-     * indicate if two events happen at the same time).
-     */
-    private static void testTwoDatesSameAndTwoTimeslotsSame() {
-        Event e1 = new Event(new Date("09/06/2023"), Timeslot.MORNING,
-                Location.HLL114, new Contact(Department.ITI,
-                "cs@rutgers.edu"), 60);
-        Event e2 = new Event(new Date("09/06/2023"), Timeslot.MORNING,
-                Location.ARC103, new Contact(Department.CS,
-                "hi@rutgers.edu"), 60);
-        boolean expectedOutput = false; //define expected output
-        boolean actualOutput = e1.equals(e2);
-        //call equals method to get actual output
-        System.out.println("**Test #3: same dates & timeslots, " +
-                "different locations");
-        testResults(expectedOutput, actualOutput);
-    }
-
-    /**
-     * Test Case #4: Tests if the equals method works
-     * when 2 dates are the same, 2 timeslots, and
-     * 2 locations are the same
-     * <p>
-     * The contact and durations do not matter, because
-     * they are not used for comparisons (they do not
-     * indicate if two events happen at the same time).
-     */
-    private static void testTwoSameEvents() {
-        Event e1 = new Event(new Date("09/06/2023"),
-                Timeslot.MORNING, Location.BE_AUD, new Contact(Department.ITI,
-                "cs@rutgers.edu"), 60);
-        Event e2 = new Event(new Date("09/06/2023"), Timeslot.MORNING,
-                Location.BE_AUD, new Contact(Department.CS,
-                "hi@rutgers.edu"), 60);
-        boolean expectedOutput = true; //define expected output
-        boolean actualOutput = e1.equals(e2);
-        //call equals method to get actual output
-        System.out.println("**Test #4: same events");
-        testResults(expectedOutput, actualOutput);
-    }
-
-    /**
-     * Template code to format and print the test results to the command line.
-     * @param expectedOutput The correct output of this test.
-     * @param actualOutput The output generated by the equals() method
-     */
-    private static void testResults(boolean expectedOutput,
-                                    boolean actualOutput) {
-        if (expectedOutput != actualOutput) {
-            System.out.printf("\t%s | Expected: %s, Got: %s\n",
-                    "Test Failed!", expectedOutput, actualOutput);
-        } else {
-            System.out.printf("\t%s | Expected: %s, Got: %s\n",
-                    "Test Passed!", expectedOutput, actualOutput);
-        }
-    }
-
-    /**
-     * Testbed main for the equals() method.
-     * @param args command line args
-     */
-    public static void main(String[] args) {
-        testTwoCompletelyDifferentEvents();
-        testTwoDatesSame();
-        testTwoDatesSameAndTwoTimeslotsSame();
-        testTwoSameEvents();
-    }
-
-}
+package scheduler;
+
+import java.util.Comparator;
+
+/**
+ * Represents a specific event booked by the user.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class Event implements Comparable<Event> {
+
+    public static final int MAX_DURATION = 120;
+    public static final int MIN_DURATION = 30;
+    public static final int NUM_TIMESLOTS = Timeslot.values().length;
+    public static final int NUM_LOCATIONS = Location.values().length;
+    public static final int SLOTS_PER_DAY = NUM_TIMESLOTS * NUM_LOCATIONS;
+
+    /**
+     * Orders events by date and start time, then by location. Consistent
+     * with equals, so it can key a sorted set.
+     */
+    public static final Comparator<Event> BY_DATE =
+            Comparator.comparingLong(Event::getSlotKey);
+    /**
+     * Orders events by campus and building, then by date and start time.
+     */
+    public static final Comparator<Event> BY_CAMPUS =
+            ((Comparator<Event>) Event::compareToByCampus).thenComparing(
+                    BY_DATE);
+    /**
+     * Orders events by department, then by date and start time.
+     */
+    public static final Comparator<Event> BY_DEPARTMENT =
+            ((Comparator<Event>) Event::compareToByDepartment).thenComparing(
+                    BY_DATE);
+
+    private static final int MAX_MIN_IN_A_HOUR = 60;
+    private static final int MONTHS_PER_YEAR_KEY = 16;
+    private static final int DAYS_PER_MONTH_KEY = 32;
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private final Date date;
+    private final Timeslot startTime;
+    private final Location location;
+    private final Contact contact; //include the department name and email
+    private final int duration; //in minutes
+    private final long slotKey; //date, timeslot and location packed together
+
+    /**
+     * This constructor makes a INCOMPLETE EVENT (without Contact and
+     * Duration).
+     * <p>
+     * Only use to make an event to compare an event to see if it already
+     * exists. The contact and department do not matter in this case
+     * because an Event-to-Event comparisons are only rely on date,
+     * timeslot, and location.
+     * @param date - specific date of the event
+     * @param startTime - Timeslot of the event
+     * @param location - Location of the event
+     */
+    public Event(Date date, Timeslot startTime, Location location){
+        this.date = date;
+        this.startTime = startTime;
+        this.location = location;
+        this.contact = null;
+        this.duration = 0;
+        this.slotKey = packSlotKey(date, startTime, location);
+    }
+    /**
+     * This constructor makes a complete event.
+     * @param date - specific date of the event
+     * @param startTime - Timeslot of the event
+     * @param location - Location of the event
+     * @param contact - Department and Email of the person leading the event
+     * @param duration - the length of the event
+     */
+    public Event(Date date, Timeslot startTime, Location location,
+                 Contact contact, int duration) {
+        this.date = date;
+        this.startTime = startTime;
+        this.location = location;
+        this.contact = contact;
+        this.duration = duration;
+        this.slotKey = packSlotKey(date, startTime, location);
+    }
+
+    /**
+     * Makes an INCOMPLETE EVENT for one (timeslot, location) slot of a
+     * day, the inverse of taking the slot key modulo SLOTS_PER_DAY.
+     * @param date - specific date of the event
+     * @param slot - the slot, from 0 to SLOTS_PER_DAY - 1
+     * @return The event taking that slot.
+     */
+    public static Event ofSlot(Date date, int slot) {
+        return new Event(date, TIMESLOTS[slot / NUM_LOCATIONS],
+                LOCATIONS[slot % NUM_LOCATIONS]);
+    }
+
+    /**
+     * Packs a date into the key of its day. The slot key of every event
+     * on the date is the day key times SLOTS_PER_DAY plus its slot.
+     * @param date - specific date
+     * @return The packed day key.
+     */
+    public static long dayKeyOf(Date date) {
+        return ((long) date.getYear() * MONTHS_PER_YEAR_KEY +
+                date.getMonth().ordinal()) * DAYS_PER_MONTH_KEY +
+                date.getDay();
+    }
+
+    /**
+     * Packs a date, timeslot and location into a single long. Two events
+     * with valid calendar dates get the same key if and only if they are
+     * equal, and keys order the same way as compareTo (then by location).
+     * @param date - specific date of the event
+     * @param startTime - Timeslot of the event
+     * @param location - Location of the event
+     * @return The packed slot key.
+     */
+    private static long packSlotKey(Date date, Timeslot startTime,
+                                    Location location) {
+        return (dayKeyOf(date) * NUM_TIMESLOTS + startTime.ordinal()) *
+                NUM_LOCATIONS + location.ordinal();
+    }
+
+    /**
+     * Getter method for the packed (date, timeslot, location) identity of
+     * {@code this Event}.
+     * @return The packed slot key of the event.
+     */
+    public long getSlotKey() {
+        return slotKey;
+    }
+
+    /**
+     * Getter method for the date of {@code this Event}.
+     * @return The date of the event.
+     */
+    public Date getDate() {
+        return date;
+    }
+
+    /**
+     * Getter method for the start time of {@code this Event}.
+     * @return The timeslot the event starts at.
+     */
+    public Timeslot getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Getter method for the location of {@code this Event}.
+     * @return The location of the event.
+     */
+    public Location getLocation() {
+        return location;
+    }
+
+    /**
+     * Getter method for the contact of {@code this Event}.
+     * @return The contact of the event, or null for an incomplete event.
+     */
+    public Contact getContact() {
+        return contact;
+    }
+
+    /**
+     * Getter method for the duration of {@code this Event}.
+     * @return The duration of the event in minutes.
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * Getter method for the start time of {@code this Event} as minutes
+     * since midnight.
+     * @return The minute of the day the event starts at.
+     */
+    public int getStartMinute() {
+        return startTime.getStartMinute();
+    }
+
+    /**
+     * Getter method for the end time of {@code this Event} as minutes
+     * since midnight.
+     * @return The minute of the day the event ends at, exclusive.
+     */
+    public int getEndMinute() {
+        return startTime.getStartMinute() + duration;
+    }
+
+    /**
+     * Checks if {@code this Event} and {@code anotherEvent} take the same
+     * location at the same time, meaning they are on the same date and
+     * their [start, end) intervals intersect.
+     * @param anotherEvent the event to check against.
+     * @return True if the two events overlap, false if they do not.
+     */
+    public boolean overlaps(Event anotherEvent) {
+        return date.equals(anotherEvent.date) &&
+                location.equals(anotherEvent.location) &&
+                getStartMinute() < anotherEvent.getEndMinute() &&
+                anotherEvent.getStartMinute() < getEndMinute();
+    }
+
+    /**
+     * Compares {@code this Event} and {@code anotherEvent} by date and
+     * timeslots.
+     * @param anotherEvent the event to be compared.
+     * @return  0 if {@code this Event} occurs at same time as
+     *          {@code anotherEvent};
+     *          -1 if {@code this Event} occurs before
+     *          {@code anotherEvent};
+     *          +1 if {@code this Event} occurs after
+     *          {@code anotherEvent};
+     */
+    @Override
+    public int compareTo(Event anotherEvent) {
+        if (date.equals(anotherEvent.date)) {
+            return startTime.compareTo(anotherEvent.startTime);
+        } else {
+            return date.compareTo(anotherEvent.date);
+        }
+    }
+
+    /**
+     * Compares {@code this Event} and {@code anotherEvent} by campus and
+     * building names lexicographically.
+     * Depends fully on the oder of declaration of the constants in the
+     * {@code Location Enum Class}
+     * @param anotherEvent the event to be compared.
+     * @return  0 if {@code this Event} occurs on same campus and building
+     *          {@code anotherEvent};
+     *          -1 if {@code this Event} location is lexicographically less
+     *          than {@code anotherEvent} location;
+     *          +1 if {@code this Event} location is lexicographically greater
+     *          than {@code anotherEvent} location;
+     */
+    public int compareToByCampus(Event anotherEvent) {
+        return location.compareTo(anotherEvent.location);
+    }
+
+    /**
+     * Compares {@code this Event} and {@code anotherEvent} by department
+     * names lexicographically.
+     * Depends fully on the oder of declaration of the constants in the
+     * {@code Department Enum Class}
+     * @param anotherEvent the event to be compared.
+     * @return  0 if {@code this Event} occurs for the same department
+     *          {@code anotherEvent};
+     *          -1 if {@code this Event} department is lexicographically
+     *          less than {@code anotherEvent} department;
+     *          +1 if {@code this Event} department is lexicographically
+     *          greater than {@code anotherEvent} department;
+     */
+    public int compareToByDepartment(Event anotherEvent) {
+        return contact.getDepartment().compareTo(
+                anotherEvent.contact.getDepartment());
+    }
+
+    /**
+     * Compares {@code this Event} and {@code objAnother}. Result is true if
+     * and only if {@code objAnother}
+     * is an Event object and has the same date, timeslot and location as
+     * {@code this Event}.
+     * @param  objAnother the Object to compare to
+     * @return True if the objects are equal. False if the objects are not
+     *          equal or the object is not instance of Event Class
+     */
+    @Override
+    public boolean equals(Object objAnother) {
+        if (objAnother instanceof Event) {
+            Event eventToCompare = (Event) objAnother;
+            return this.date.equals(eventToCompare.date) &&
+                    this.startTime.equals(eventToCompare.startTime) &&
+                    this.location.equals(eventToCompare.location);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code for {@code this Event}, built only from the packed
+     * date, timeslot and location so that it is consistent with equals.
+     * @return The hash code of the event.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(slotKey);
+    }
+
+    /**
+     * Returns a String representation of {@code this Event}.
+     * Format: [Date] [Start Time] [End Time] Building Code
+     *         (Building Name, Campus) [Department, email]
+     * @return The properly formatted event.
+     */
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends {@code this Event} to {@code builder} in the same format as
+     * toString, rendering each part in place instead of through
+     * String.format.
+     * @param builder The builder to append to.
+     * @return The same builder, for chaining.
+     */
+    public StringBuilder appendTo(StringBuilder builder) {
+        date.appendTo(builder).append(' ');
+        startTime.appendTo(builder).append(' ');
+        appendEndTime(builder).append(' ');
+        location.appendTo(builder).append(' ');
+        if (contact == null) {
+            return builder.append((Object) null);
+        }
+        return contact.appendTo(builder);
+    }
+
+    /**
+     * Adds duration to start time, and deals with overflow.
+     * Format: [End: Hour:Min Locale]
+     * @param builder The builder to append the end time to.
+     * @return The same builder, for chaining.
+     */
+    private StringBuilder appendEndTime(StringBuilder builder) {
+        int endMin = startTime.getMinute() + duration % MAX_MIN_IN_A_HOUR;
+        int endHour = startTime.getHour() + duration / MAX_MIN_IN_A_HOUR;
+        while (!(endMin < MAX_MIN_IN_A_HOUR)) {
+            endMin -= 60;
+            endHour++;
+        }
+        //endHour%=MAX_HOUR;
+        String locale = Timeslot.LOCALE_PM;
+        final int hourToSwitchLocale = 12;
+        if (startTime.equals(Timeslot.MORNING) &&
+                endHour < hourToSwitchLocale) {
+            locale = Timeslot.LOCALE_AM;
+        }
+        builder.append("[End: ").append(endHour).append(':');
+        return Date.appendTwoDigits(builder, endMin).append(' ')
+                .append(locale).append(']');
+    }
+
+    /**
+     * Test Case #1: Tests if the equals method works
+     * when two events are completely different.
+     * <p>
+     * The contact and durations do not matter, because
+     * they are not used for comparisons (they do not
+     * indicate if two events happen at the same time).
+     */
+    private static void testTwoCompletelyDifferentEvents() {
+        Event e1 = new Event(new Date("09/06/2023"), Timeslot.AFTERNOON,
+                Location.HLL114, new Contact(Department.ITI,
+                "cs@rutgers.edu"), 60);
+        Event e2 = new Event(new Date("03/06/2021"), Timeslot.MORNING,
+                Location.ARC103, new Contact(Department.CS,
+                "hi@rutgers.edu"), 60);
+        boolean expectedOutput = false; //define expected output
+        boolean actualOutput = e1.equals(e2);
+        //call equals method to get actual output
+        System.out.println("**Test #1: 2 completely different events");
+        testResults(expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test Case #2: Tests if the equals method works
+     * when 2 dates are the same, but the timeslots are different.
+     * In this test case, the value of the locations does not matter
+     * because of the order of comparisons in the equals method.
+     * <p>
+     * The contact and durations do not matter, because
+     * they are not used for comparisons (they do not
+     * indicate if two events happen at the same time).
+     */
+    private static void testTwoDatesSame() {
+        Event e1 = new Event(new Date("09/06/2023"), Timeslot.AFTERNOON,
+                Location.HLL114, new Contact(Department.ITI,
+                "cs@rutgers.edu"), 60);
+        Event e2 = new Event(new Date("09/06/2023"), Timeslot.MORNING,
+                Location.ARC103, new Contact(Department.CS,
+                "hi@rutgers.edu"), 60);
+        boolean expectedOutput = false; //define expected output
+        boolean actualOutput = e1.equals(e2);
+        //call equals method to get actual output
+        System.out.println("**Test #2: same dates, different timeslots");
+        testResults(expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test Case #3: Tests if the equals method works
+     * when 2 dates are the same, 2 timeslots are the same, but the
+     * locations are different.
+     * <p>
+     * The contact and durations do not matter, because
+     * they are not used for comparisons (they do not
+     * indicate if two events happen at the same time).
+     */
+    private static void testTwoDatesSameAndTwoTimeslotsSame() {
+        Event e1 = new Event(new Date("09/06/2023"), Timeslot.MORNING,
+                Location.HLL114, new Contact(Department.ITI,
+                "cs@rutgers.edu"), 60);
+        Event e2 = new Event(new Date("09/06/2023"), Timeslot.MORNING,
+                Location.ARC103, new Contact(Department.CS,
+                "hi@rutgers.edu"), 60);
+        boolean expectedOutput = false; //define expected output
+        boolean actualOutput = e1.equals(e2);
+        //call equals method to get actual output
+        System.out.println("**Test #3: same dates & timeslots, " +
+                "different locations");
+        testResults(expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test Case #4: Tests if the equals method works
+     * when 2 dates are the same, 2 timeslots, and
+     * 2 locations are the same
+     * <p>
+     * The contact and durations do not matter, because
+     * they are not used for comparisons (they do not
+     * indicate if two events happen at the same time).
+     */
+    private static void testTwoSameEvents() {
+        Event e1 = new Event(new Date("09/06/2023"),
+                Timeslot.MORNING, Location.BE_AUD, new Contact(Department.ITI,
+                "cs@rutgers.edu"), 60);
+        Event e2 = new Event(new Date("09/06/2023"), Timeslot.MORNING,
+                Location.BE_AUD, new Contact(Department.CS,
+                "hi@rutgers.edu"), 60);
+        boolean expectedOutput = true; //define expected output
+        boolean actualOutput = e1.equals(e2);
+        //call equals method to get actual output
+        System.out.println("**Test #4: same events");
+        testResults(expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test Case #5: Tests if the overlaps method works when 2 events take
+     * the same date, timeslot and location.
+     */
+    private static void testOverlappingEvents() {
+        Event e1 = new Event(new Date("09/06/2023"), Timeslot.MORNING,
+                Location.HLL114, new Contact(Department.ITI,
+                "cs@rutgers.edu"), 30);
+        Event e2 = new Event(new Date("09/06/2023"), Timeslot.MORNING,
+                Location.HLL114, new Contact(Department.CS,
+                "hi@rutgers.edu"), 120);
+        boolean expectedOutput = true; //define expected output
+        boolean actualOutput = e1.overlaps(e2);
+        //call overlaps method to get actual output
+        System.out.println("**Test #5: overlapping events");
+        testResults(expectedOutput, actualOutput);
+    }
+
+    /**
+     * Test Case #6: Tests if the overlaps method works when the longest
+     * event of a timeslot ends before the next timeslot of the same
+     * location starts.
+     */
+    private static void testBackToBackEvents() {
+        Event e1 = new Event(new Date("09/06/2023"), Timeslot.MORNING,
+                Location.HLL114, new Contact(Department.ITI,
+                "cs@rutgers.edu"), Event.MAX_DURATION);
+        Event e2 = new Event(new Date("09/06/2023"), Timeslot.AFTERNOON,
+                Location.HLL114, new Contact(Department.CS,
+                "hi@rutgers.edu"), 60);
+        boolean expectedOutput = false; //define expected output
+        boolean actualOutput = e1.overlaps(e2);
+        //call overlaps method to get actual output
+        System.out.println("**Test #6: back to back events");
+        testResults(expectedOutput, actualOutput);
+    }
+
+    /**
+     * Template code to format and print the test results to the command line.
+     * @param expectedOutput The correct output of this test.
+     * @param actualOutput The output generated by the equals() method
+     */
+    private static void testResults(boolean expectedOutput,
+                                    boolean actualOutput) {
+        if (expectedOutput != actualOutput) {
+            System.out.printf("\t%s | Expected: %s, Got: %s\n",
+                    "Test Failed!", expectedOutput, actualOutput);
+        } else {
+            System.out.printf("\t%s | Expected: %s, Got: %s\n",
+                    "Test Passed!", expectedOutput, actualOutput);
+        }
+    }
+
+    /**
+     * Testbed main for the equals() and overlaps() methods.
+     * @param args command line args
+     */
+    public static void main(String[] args) {
+        testTwoCompletelyDifferentEvents();
+        testTwoDatesSame();
+        testTwoDatesSameAndTwoTimeslotsSame();
+        testTwoSameEvents();
+        testOverlappingEvents();
+        testBackToBackEvents();
+    }
+
+}
@@ -1,213 +1,369 @@
-package scheduler;
-
-/**
- * Array-based implementation of the whole calendar filled with all
- * scheduled events.
- * @author Dharmik Patel and Krish Patel
- */
-public class EventCalender {
-    private final static int NOT_FOUND = -1;
-    private final static int GROWTH_AMOUNT = 4;
-    private final static int NO_EVENTS = 0;
-
-    private Event[] events; //the array holding the list of events
-    private int numEvents;
-    //the number of events in the list. does not have to equal events.length
-
-    /**
-     * Instantiates a EventCalender object with an Events[] array
-     * with initial capacity of GROWTH_AMOUNT(4) and numEvents to 0;
-     */
-    public EventCalender() {
-        events = new Event[GROWTH_AMOUNT];
-        numEvents = 0;
-    }
-
-    /**
-     * Loops through the events array to find the given event.
-     * @param event Event to fnd
-     * @return The index of the event in events array, or NOT_FOUND(-1)
-     */
-    private int find(Event event) {
-        for (int i = 0; i < numEvents; i++) {
-            if (events[i] != null && events[i].equals(event)) {
-                return i;
-            }
-        }
-        return NOT_FOUND;
-    }
-
-    /**
-     * Grows the events array by GROWTH_AMOUNT(4). This is a manual copy.
-     */
-    private void grow() {
-        Event[] arrTemp = new Event[events.length + GROWTH_AMOUNT];
-        for (int i = 0; i < events.length; i++) {
-            arrTemp[i] = events[i];
-        }
-        events = arrTemp;
-    }
-
-    /**
-     * Adds an event to the event calendar, if it does not already exist
-     * in the event calendar. Will also grow the array if needed.
-     * @param event Event to add.
-     * @return True if event was added, false if it was not added.
-     */
-    public boolean add(Event event) {
-        if (!(contains(event))) {
-            try {
-                events[numEvents] = event;
-                numEvents++;
-            } catch (ArrayIndexOutOfBoundsException e) {
-                grow();
-                events[numEvents] = event;
-                numEvents++;
-            }
-            return true;
-        } else {
-            return false;
-        }
-    }
-
-    /**
-     * Removes the specified event if it is in the calendar. Also left shifts
-     * the events, to fill empty space left by removed event.
-     * @param event Event to remove
-     * @return True if the event is removed, false if it is not found in
-     *         the calendar.
-     */
-    public boolean remove(Event event) {
-        int positionToRemove = find(event);
-        if (positionToRemove == NOT_FOUND) {
-            return false;
-        } else {
-            leftShiftArray(positionToRemove);
-            return true;
-        }
-    }
-
-    /**
-     * Checks if the specified event is in the calendar.
-     * @param event Event to check
-     * @return True if event is in calendar, False if it is not.
-     */
-    public boolean contains(Event event) {
-        return find(event) != NOT_FOUND;
-    }
-
-    /**
-     * Utility method to shift all array elements after {@code position}.
-     * @param position Index to start shifting from.
-     */
-    private void leftShiftArray(int position) {
-        for (int i = position; i < numEvents - 1; i++) {
-            events[i] = events[i + 1];
-        }
-        events[numEvents] = null;
-        numEvents--;
-    }
-
-    /**
-     * Utility method to reuse code to print the current calendar in the
-     * current array order.
-     */
-    private void printCurrentArray() {
-        for (int i = 0; i < numEvents; i++) {
-            System.out.println(events[i]);
-        }
-    }
-
-    /**
-     * Prints the calendar in current array order
-     */
-    public void print() {
-        if(numEvents == NO_EVENTS){
-            System.out.println("Event calendar is empty!");
-            return;
-        }
-        System.out.println("* Event calendar *");
-        printCurrentArray();
-        System.out.println("* end of event calendar *");
-    }
-
-    /**
-     * Prints the calendar sorted by event date and start time.
-     */
-    public void printByDate() {
-        if(numEvents == NO_EVENTS){
-            System.out.println("Event calendar is empty!");
-            return;
-        }
-        for (int i = 0; i < numEvents - 1; i++) {
-            int indexOfEarliestEvent = i;
-            for (int j = i + 1; j < numEvents; j++) {
-                if (events[j].compareTo(events[indexOfEarliestEvent]) < 0) {
-                    indexOfEarliestEvent = j;
-                }
-            }
-            swap(i, indexOfEarliestEvent);
-        }
-        System.out.println("* Event calendar by event date and start time *");
-        printCurrentArray();
-        System.out.println("* end of event calendar *");
-    }
-
-    /**
-     * Prints the calendar sorted by campus and building.
-     */
-    public void printByCampus() {
-        if(numEvents == NO_EVENTS){
-            System.out.println("Event calendar is empty!");
-            return;
-        }
-        for (int i = 0; i < numEvents - 1; i++) {
-            int indexOfEarliestEvent = i;
-            for (int j = i + 1; j < numEvents; j++) {
-                if (events[j].compareToByCampus(events[indexOfEarliestEvent])
-                        < 0) {
-                    indexOfEarliestEvent = j;
-                }
-            }
-            swap(i, indexOfEarliestEvent);
-        }
-        System.out.println("* Event calendar by campus and building *");
-        printCurrentArray();
-        System.out.println("* end of event calendar *");
-    }
-
-    /**
-     * Prints the calendar sorted by department.
-     */
-    public void printByDepartment() {
-        if(numEvents == NO_EVENTS){
-            System.out.println("Event calendar is empty!");
-            return;
-        }
-        for (int i = 0; i < numEvents - 1; i++) {
-            int indexOfEarliestEvent = i;
-            for (int j = i + 1; j < numEvents; j++) {
-                if (events[j].compareToByDepartment(
-                        events[indexOfEarliestEvent]) < 0) {
-                    indexOfEarliestEvent = j;
-                }
-            }
-            swap(i, indexOfEarliestEvent);
-        }
-        System.out.println("* Event calendar by department *");
-        printCurrentArray();
-        System.out.println("* end of event calendar *");
-    }
-
-    /**
-     * Utility method used while sorting to swap two events in the calendar
-     * array.
-     * @param i Index of 1st Event to swap
-     * @param j Index of 2nd Event to swap
-     */
-    private void swap(int i, int j) {
-        Event temp = events[j];
-        events[j] = events[i];
-        events[i] = temp;
-    }
-}
+package scheduler;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * Array-based implementation of the whole calendar filled with all
+ * scheduled events.
+ * <p>
+ * A removed event leaves a null tombstone in the array instead of shifting
+ * the events after it, so a remove only updates the indexes of the one
+ * event. The array is compacted once tombstones make up half of the used
+ * part of it, which costs O(1) moves per remove over time.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class EventCalender implements CalendarStorage {
+    private final static int NOT_FOUND = SlotTable.NOT_FOUND;
+    private final static int GROWTH_AMOUNT = 4;
+    private final static int GROWTH_FACTOR = 2;
+    private final static int NO_EVENTS = 0;
+
+    private Event[] events; //the array holding the list of events
+    private int numEvents;
+    //the number of events in the list. does not have to equal events.length
+    private int numUsed; //array entries in use, events and tombstones
+    private final SlotTable positions;
+    //maps the slot key of every event to its index in the events array
+    private final IntervalIndex intervals; //booked intervals of every room
+    private final SlotTable occupancy; //booked slots of every day with
+    //events, as a bitmap keyed by day key
+    private final TreeSet<Event> byDate; //events by date and start time
+    private final TreeSet<Event> byCampus; //events by campus and building
+    private final TreeSet<Event> byDepartment; //events by department
+    private final ListingWriter listing; //reused to render every listing
+    private EventLog log; //records every successful add and remove, or null
+
+    /**
+     * Instantiates a EventCalender object with an Events[] array
+     * with initial capacity of GROWTH_AMOUNT(4) and numEvents to 0;
+     */
+    public EventCalender() {
+        this(GROWTH_AMOUNT);
+    }
+
+    /**
+     * Instantiates a EventCalender object with an Events[] array pre-sized
+     * to hold {@code initialCapacity} events without growing.
+     * @param initialCapacity Number of events the calendar can hold before
+     *                        it has to grow.
+     */
+    public EventCalender(int initialCapacity) {
+        events = new Event[Math.max(initialCapacity, GROWTH_AMOUNT)];
+        numEvents = 0;
+        numUsed = 0;
+        positions = new SlotTable(initialCapacity);
+        intervals = new IntervalIndex();
+        occupancy = new SlotTable();
+        byDate = new TreeSet<>(Event.BY_DATE);
+        byCampus = new TreeSet<>(Event.BY_CAMPUS);
+        byDepartment = new TreeSet<>(Event.BY_DEPARTMENT);
+        listing = new ListingWriter();
+    }
+
+    /**
+     * Makes sure the calendar can hold at least {@code capacity} events
+     * without growing again. Importers that know how many events they are
+     * about to add should call this once beforehand.
+     * @param capacity Minimum number of events the calendar must hold.
+     */
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (capacity + numUsed - numEvents > events.length) {
+            compact();
+        }
+        if (capacity > events.length) {
+            events = Arrays.copyOf(events, capacity);
+        }
+        positions.ensureCapacity(capacity);
+    }
+
+    /**
+     * Attaches a write-ahead log that every later successful add and remove
+     * is appended to.
+     * @param log The log to append to, or null to stop logging.
+     */
+    @Override
+    public void setLog(EventLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Looks up the given event in the position index. The index is keyed
+     * on the packed date, timeslot and location that Event.equals uses.
+     * @param event Event to fnd
+     * @return The index of the event in events array, or NOT_FOUND(-1)
+     */
+    private int find(Event event) {
+        return positions.get(event.getSlotKey());
+    }
+
+    /**
+     * Grows the events array by GROWTH_FACTOR(2), so adding N events only
+     * copies O(N) references in total.
+     */
+    private void grow() {
+        events = Arrays.copyOf(events, events.length * GROWTH_FACTOR);
+    }
+
+    /**
+     * Adds an event to the event calendar, if it does not already exist
+     * in the event calendar and does not overlap another event in the same
+     * location. Will also grow the array if needed.
+     * @param event Event to add.
+     * @return True if event was added, false if it was not added.
+     */
+    @Override
+    public boolean add(Event event) {
+        if (!(contains(event)) && intervals.findOverlap(event) == null) {
+            if (numUsed == events.length) {
+                grow();
+            }
+            events[numUsed] = event;
+            positions.put(event.getSlotKey(), numUsed);
+            numUsed++;
+            numEvents++;
+            intervals.add(event);
+            setOccupied(event, true);
+            byDate.add(event);
+            byCampus.add(event);
+            byDepartment.add(event);
+            if (log != null) {
+                log.logAdd(event);
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Adds a batch of events in order, growing the array at most once for
+     * the whole batch.
+     * @param events The events to add.
+     * @param count Number of events at the start of the array to add.
+     * @return For each event, true if it was added and false if it was
+     *         already in the calendar or earlier in the batch, or overlaps
+     *         one that is.
+     */
+    @Override
+    public boolean[] addAll(Event[] events, int count) {
+        ensureCapacity(numEvents + count);
+        boolean[] isAdded = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            isAdded[i] = add(events[i]);
+        }
+        return isAdded;
+    }
+
+    /**
+     * Removes the specified event if it is in the calendar. Its entry in
+     * the array is left as a tombstone, and the array is compacted once
+     * half of its used entries are tombstones.
+     * @param event Event to remove
+     * @return True if the event is removed, false if it is not found in
+     *         the calendar.
+     */
+    @Override
+    public boolean remove(Event event) {
+        int positionToRemove = find(event);
+        if (positionToRemove == NOT_FOUND) {
+            return false;
+        } else {
+            Event removed = events[positionToRemove];
+            positions.remove(removed.getSlotKey());
+            intervals.remove(removed);
+            setOccupied(removed, false);
+            byDate.remove(removed);
+            byCampus.remove(removed);
+            byDepartment.remove(removed);
+            events[positionToRemove] = null;
+            numEvents--;
+            if ((numUsed - numEvents) * 2 >= numUsed) {
+                compact();
+            }
+            if (log != null) {
+                log.logRemove(removed);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Getter method for the number of events in the calendar.
+     * @return The number of events in the calendar.
+     */
+    @Override
+    public int size() {
+        return numEvents;
+    }
+
+    /**
+     * Copies the events of the calendar in insertion order.
+     * @return A new array holding every event in the calendar.
+     */
+    @Override
+    public Event[] toArray() {
+        compact();
+        return Arrays.copyOf(events, numEvents);
+    }
+
+    /**
+     * Checks if the specified event is in the calendar, with a test of
+     * its bit in the occupancy bitmap of its day.
+     * @param event Event to check
+     * @return True if event is in calendar, False if it is not.
+     */
+    @Override
+    public boolean contains(Event event) {
+        long slotKey = event.getSlotKey();
+        int occupied = occupancyOf(Math.floorDiv(slotKey,
+                Event.SLOTS_PER_DAY));
+        return (occupied >>> Math.floorMod(slotKey, Event.SLOTS_PER_DAY) &
+                1) != 0;
+    }
+
+    /**
+     * Gets the occupancy bitmap of a day with one hash lookup.
+     * @param date The day.
+     * @return The bitmap of booked slots.
+     */
+    @Override
+    public int occupancyOf(Date date) {
+        return occupancyOf(Event.dayKeyOf(date));
+    }
+
+    /**
+     * Utility method to get the occupancy bitmap of a day.
+     * @param dayKey The key of the day.
+     * @return The bitmap of booked slots, 0 if the day has no events.
+     */
+    private int occupancyOf(long dayKey) {
+        int occupied = occupancy.get(dayKey);
+        return occupied == SlotTable.NOT_FOUND ? 0 : occupied;
+    }
+
+    /**
+     * Utility method to set or clear the bit of an event in the occupancy
+     * bitmap of its day. Days left with no events are dropped.
+     * @param event The event.
+     * @param isOccupied True to set the bit, false to clear it.
+     */
+    private void setOccupied(Event event, boolean isOccupied) {
+        long slotKey = event.getSlotKey();
+        long dayKey = Math.floorDiv(slotKey, Event.SLOTS_PER_DAY);
+        int bit = 1 << Math.floorMod(slotKey, Event.SLOTS_PER_DAY);
+        int occupied = isOccupied ? occupancyOf(dayKey) | bit :
+                occupancyOf(dayKey) & ~bit;
+        if (occupied == 0) {
+            occupancy.remove(dayKey);
+        } else {
+            occupancy.put(dayKey, occupied);
+        }
+    }
+
+    /**
+     * Looks up the events that match a query, by date and start time,
+     * then location. The iterator is lazy and starts from the first event
+     * of the date range in the date index, so only events in the range
+     * are looked at. The calendar must not change while it is in use.
+     * @param query The date range and filters to match.
+     * @return An iterator over the matching events.
+     */
+    @Override
+    public Iterator<Event> query(EventQuery query) {
+        return byDate.subSet(query.lowerBound(), true, query.upperBound(),
+                true).stream().filter(query::matches).iterator();
+    }
+
+    /**
+     * Utility method to drop the tombstones, moving the events after them
+     * down in one pass. Keeps the position index in sync with the moved
+     * events.
+     */
+    private void compact() {
+        if (numUsed == numEvents) {
+            return;
+        }
+        int position = 0;
+        for (int i = 0; i < numUsed; i++) {
+            if (events[i] != null) {
+                if (i != position) {
+                    events[position] = events[i];
+                    positions.put(events[position].getSlotKey(), position);
+                }
+                position++;
+            }
+        }
+        Arrays.fill(events, numEvents, numUsed, null);
+        numUsed = numEvents;
+    }
+
+    /**
+     * Prints the calendar in current array order
+     * @param out The stream to print to.
+     */
+    @Override
+    public void print(PrintStream out) {
+        if(numEvents == NO_EVENTS){
+            ListingWriter.printEmpty(out);
+            return;
+        }
+        listing.begin(ListingWriter.HEADER_ALL);
+        for (int i = 0; i < numUsed; i++) {
+            if (events[i] != null) {
+                listing.append(events[i]);
+            }
+        }
+        listing.end(out);
+    }
+
+    /**
+     * Prints the calendar sorted by event date and start time.
+     * @param out The stream to print to.
+     */
+    @Override
+    public void printByDate(PrintStream out) {
+        printIndex(out, ListingWriter.HEADER_BY_DATE, byDate);
+    }
+
+    /**
+     * Prints the calendar sorted by campus and building.
+     * @param out The stream to print to.
+     */
+    @Override
+    public void printByCampus(PrintStream out) {
+        printIndex(out, ListingWriter.HEADER_BY_CAMPUS, byCampus);
+    }
+
+    /**
+     * Prints the calendar sorted by department.
+     * @param out The stream to print to.
+     */
+    @Override
+    public void printByDepartment(PrintStream out) {
+        printIndex(out, ListingWriter.HEADER_BY_DEPARTMENT, byDepartment);
+    }
+
+    /**
+     * Utility method to print the events of an ordered index with an
+     * in-order walk, so no sorting happens at print time.
+     * @param out The stream to print to.
+     * @param header Header line of the listing.
+     * @param index Ordered index to print.
+     */
+    private void printIndex(PrintStream out, String header,
+                            TreeSet<Event> index) {
+        if(numEvents == NO_EVENTS){
+            ListingWriter.printEmpty(out);
+            return;
+        }
+        listing.begin(header);
+        for (Event event : index) {
+            listing.append(event);
+        }
+        listing.end(out);
+    }
+}
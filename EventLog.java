@@ -0,0 +1,335 @@
+package scheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only write-ahead log of the adds and removes made to a
+ * calendar since its last snapshot.
+ * <p>
+ * Records are collected in a buffer and written with group commit: the
+ * buffer is written and forced to disk at most once per fsync interval,
+ * by whichever append crosses the interval or by a background flusher when
+ * the calendar goes idle. An interval of 0 forces every record to disk.
+ * <p>
+ * Record format: operation (byte, OP_ADD or OP_REMOVE), packed date (int,
+ * as YYYYMMDD), timeslot ordinal (byte), location ordinal (byte); an add
+ * is followed by the department ordinal (byte), duration (short) and a
+ * UTF-8 email prefixed by its length as an int. Adds logged before email
+ * lengths were ints have the operation OP_ADD_SHORT_EMAIL and an unsigned
+ * short length, and are still replayed.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class EventLog implements AutoCloseable {
+    public static final byte OP_ADD = 3;
+    public static final byte OP_REMOVE = 2;
+    private static final byte OP_ADD_SHORT_EMAIL = 1;
+    public static final long DEFAULT_COMPACTION_SIZE = 1 << 24;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int KEY_SIZE = 1 + Integer.BYTES + 2;
+    private static final int ADD_SIZE = 1 + Short.BYTES + Integer.BYTES;
+    private static final int SHORT_EMAIL_ADD_SIZE = 1 + Short.BYTES +
+            Short.BYTES;
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Department[] DEPARTMENTS = Department.values();
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final long fsyncIntervalMillis;
+    private final long compactionSize;
+    private final ScheduledExecutorService flusher;
+    private long lastSyncMillis;
+    private long logSize; //bytes written to the log, including the buffer
+
+    /**
+     * Opens the log for appending, creating it if it does not exist.
+     * @param file The log file.
+     * @param fsyncIntervalMillis Longest time in milliseconds a record may
+     *                            wait in memory before being forced to
+     *                            disk; 0 forces every record.
+     * @param compactionSize Log size in bytes after which the log should
+     *                       be compacted into a new snapshot.
+     * @throws IOException If the file cannot be opened.
+     */
+    public EventLog(Path file, long fsyncIntervalMillis, long compactionSize)
+            throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.compactionSize = compactionSize;
+        logSize = channel.size();
+        lastSyncMillis = System.currentTimeMillis();
+        if (fsyncIntervalMillis > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "event-log-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::syncQuietly,
+                    fsyncIntervalMillis, fsyncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Appends a successful add to the log. An email too long for the
+     * buffer is written straight to the log once the buffer has been
+     * written out.
+     * @param event The complete event that was added.
+     */
+    public synchronized void logAdd(Event event) {
+        byte[] email = event.getContact().getEmail().getBytes(
+                StandardCharsets.UTF_8);
+        ensureRoom(KEY_SIZE + ADD_SIZE + email.length);
+        putKey(OP_ADD, event);
+        buffer.put((byte) event.getContact().getDepartment().ordinal())
+                .putShort((short) event.getDuration())
+                .putInt(email.length);
+        if (email.length <= buffer.remaining()) {
+            buffer.put(email);
+        } else {
+            writeBuffer();
+            writeFully(ByteBuffer.wrap(email));
+        }
+        logSize += KEY_SIZE + ADD_SIZE + email.length;
+        commitIfDue();
+    }
+
+    /**
+     * Appends a successful remove to the log.
+     * @param event The event that was removed; only its date, timeslot and
+     *              location are logged.
+     */
+    public synchronized void logRemove(Event event) {
+        ensureRoom(KEY_SIZE);
+        putKey(OP_REMOVE, event);
+        logSize += KEY_SIZE;
+        commitIfDue();
+    }
+
+    /**
+     * Checks if the log has grown past its compaction size.
+     * @return True if the log should be compacted.
+     */
+    public synchronized boolean needsCompaction() {
+        return logSize >= compactionSize;
+    }
+
+    /**
+     * Folds the log into a new snapshot of the calendar and empties the
+     * log. The snapshot is in place before the log is truncated, so a
+     * crash in between only replays records the snapshot already has.
+     * @param calendar The calendar the log belongs to.
+     * @param snapshotFile The snapshot file to replace.
+     * @throws IOException If the snapshot or the log cannot be written.
+     */
+    public synchronized void compact(CalendarStorage calendar,
+                                     Path snapshotFile) throws IOException {
+        sync();
+        CalendarFile.save(calendar, snapshotFile);
+        channel.truncate(0);
+        channel.force(true);
+        logSize = 0;
+    }
+
+    /**
+     * Writes every buffered record to the log and forces it to disk.
+     * @throws IOException If the log cannot be written.
+     */
+    public synchronized void sync() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        channel.force(false);
+        lastSyncMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Stops the background flusher, forces the remaining records to disk
+     * and closes the log.
+     * @throws IOException If the log cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        sync();
+        channel.close();
+    }
+
+    /**
+     * Applies every record of a log to the calendar, in order. A record
+     * cut off by a crash while it was being written is dropped, and the
+     * file is truncated to the last whole record.
+     * @param file The log file; nothing happens if it does not exist.
+     * @param calendar The calendar restored from the last snapshot.
+     * @return The number of records applied.
+     * @throws IOException If the file cannot be read or truncated.
+     */
+    public static int replay(Path file, CalendarStorage calendar)
+            throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        int numRecords = 0;
+        long validSize;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer log = channel.map(FileChannel.MapMode.READ_ONLY,
+                    0, channel.size());
+            while (applyRecord(log, calendar)) {
+                numRecords++;
+            }
+            validSize = log.position();
+            if (validSize < channel.size()) {
+                channel.truncate(validSize);
+            }
+        }
+        return numRecords;
+    }
+
+    /**
+     * Utility method to apply the next record of a log.
+     * @param log The log, positioned at the next record.
+     * @param calendar The calendar to apply the record to.
+     * @return True if a whole record was applied; false at the end of the
+     *         log or at a cut off or unreadable record, which leaves the
+     *         position at the start of that record.
+     */
+    private static boolean applyRecord(ByteBuffer log,
+                                       CalendarStorage calendar) {
+        int recordStart = log.position();
+        if (log.remaining() < KEY_SIZE) {
+            return false;
+        }
+        byte operation = log.get();
+        Date date = CalendarFile.unpackDate(log.getInt());
+        int timeslot = log.get();
+        int location = log.get();
+        if (timeslot < 0 || timeslot >= TIMESLOTS.length || location < 0 ||
+                location >= LOCATIONS.length) {
+            log.position(recordStart);
+            return false;
+        }
+        if (operation == OP_REMOVE) {
+            calendar.remove(new Event(date, TIMESLOTS[timeslot],
+                    LOCATIONS[location]));
+            return true;
+        }
+        boolean isShortEmail = operation == OP_ADD_SHORT_EMAIL;
+        if ((operation != OP_ADD && !isShortEmail) || log.remaining() <
+                (isShortEmail ? SHORT_EMAIL_ADD_SIZE : ADD_SIZE)) {
+            log.position(recordStart);
+            return false;
+        }
+        int department = log.get();
+        int duration = log.getShort();
+        int emailLength = isShortEmail ? log.getShort() & 0xFFFF :
+                log.getInt();
+        if (department < 0 || department >= DEPARTMENTS.length ||
+                emailLength < 0 || log.remaining() < emailLength) {
+            log.position(recordStart);
+            return false;
+        }
+        byte[] email = new byte[emailLength];
+        log.get(email);
+        calendar.add(new Event(date, TIMESLOTS[timeslot],
+                LOCATIONS[location], Contact.of(DEPARTMENTS[department],
+                new String(email, StandardCharsets.UTF_8)), duration));
+        return true;
+    }
+
+    /**
+     * Utility method to write the part of a record shared by adds and
+     * removes.
+     * @param operation OP_ADD or OP_REMOVE.
+     * @param event The event being logged.
+     */
+    private void putKey(byte operation, Event event) {
+        buffer.put(operation)
+                .putInt(CalendarFile.packDate(event.getDate()))
+                .put((byte) event.getStartTime().ordinal())
+                .put((byte) event.getLocation().ordinal());
+    }
+
+    /**
+     * Utility method to write out the buffer if the next record does not
+     * fit in it.
+     * @param bytes Size of the next record.
+     */
+    private void ensureRoom(int bytes) {
+        if (buffer.remaining() < bytes) {
+            writeBuffer();
+        }
+    }
+
+    /**
+     * Utility method to write out the buffer, without forcing it to disk.
+     */
+    private void writeBuffer() {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Utility method to write all the bytes left in a buffer to the log.
+     * @param bytes The bytes to write.
+     */
+    private void writeFully(ByteBuffer bytes) {
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Utility method to commit the group of buffered records once the
+     * fsync interval has passed since the last commit.
+     */
+    private void commitIfDue() {
+        if (System.currentTimeMillis() - lastSyncMillis >=
+                fsyncIntervalMillis) {
+            try {
+                sync();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Utility method for the background flusher, which has no caller to
+     * report a failure to; the next append or sync reports it instead.
+     */
+    private synchronized void syncQuietly() {
+        if (buffer.position() == 0 || !channel.isOpen()) {
+            return;
+        }
+        try {
+            sync();
+        } catch (IOException e) {
+            //reported by the next append or sync
+        }
+    }
+}
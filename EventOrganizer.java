@@ -1,229 +1,901 @@
-package scheduler;
-
-import java.util.Scanner;
-
-/**
- * This class interfaces with the user via the command line.
- * An instance of this class can process a single command line
- * or multiple command lines at a time.
- * @author Dharmik Patel and Krish Patel
- */
-public class EventOrganizer {
-
-    private static final String CMD_ADD = "A";
-    private static final String CMD_CANCEL = "R";
-    private static final String CMD_PRINT = "P";
-    private static final String CMD_PRINT_BY_DATES = "PE";
-    private static final String CMD_PRINT_BY_CAMPUS = "PC";
-    private static final String CMD_PRINT_BY_DEPARTMENT = "PD";
-    private static final String CMD_QUIT = "Q";
-    private static final String CMD_EMPTY = "";
-    private static final int INDEX_OF_CMD_IN_INPUT = 0;
-    private static final int INDEX_OF_DATE_IN_INPUT = 1;
-    private static final int INDEX_OF_TIME_IN_INPUT = 2;
-    private static final int INDEX_OF_LOCATION_IN_INPUT = 3;
-    private static final int INDEX_OF_DEPARTMENT_IN_INPUT = 4;
-    private static final int INDEX_OF_EMAIL_IN_INPUT = 5;
-    private static final int INDEX_OF_DURATION_LENGTH_IN_INPUT = 6;
-
-
-
-
-    private EventCalender eventCalender;
-
-    /**
-     * This is the run method to make the User UI work.
-     * Will run until CMD_QUIT("Q") is inputted
-     * The last line of input must end in a "\n" new line character.
-     */
-    public void run() {
-        eventCalender = new EventCalender();
-        System.out.println("Event Organizer running...");
-        Scanner scanner = new Scanner(System.in);
-        String currentFullLine;
-        do {
-            currentFullLine = scanner.nextLine();
-            String[] commands = currentFullLine.split("\\s+");
-            switch (commands[INDEX_OF_CMD_IN_INPUT]){
-                case CMD_ADD -> addEvent(commands);
-                case CMD_CANCEL -> cancelEvent(commands);
-                case CMD_PRINT -> eventCalender.print();
-                case CMD_PRINT_BY_CAMPUS -> eventCalender.printByCampus();
-                case CMD_PRINT_BY_DATES -> eventCalender.printByDate();
-                case CMD_PRINT_BY_DEPARTMENT -> {
-                    eventCalender.printByDepartment();
-                }
-                case CMD_QUIT -> System.out.println(
-                        "Event Organizer terminated.");
-                case CMD_EMPTY -> {}
-                default -> System.out.printf("%s is an invalid command!\n",
-                        commands[0]);
-            }
-        } while (!(currentFullLine.equals(CMD_QUIT)));
-        scanner.close();
-    }
-    /**
-     * This method adds an event from the Event Calendar if the event
-     * does not already exist in the calendar. It also takes care of
-     * invalid inputs by calling helper methods: getEventDate, getStartTime,
-     * getLocation, getContact, and getDuration.
-     * @param commands - The line input split by words.
-     */
-    private void addEvent(String[] commands){
-        Date eventDate = getAndCheckEventDate(
-                commands[INDEX_OF_DATE_IN_INPUT]);
-        if (eventDate == null) return;
-
-        Timeslot startTime = getAndCheckStartTime(
-                commands[INDEX_OF_TIME_IN_INPUT]);
-        if (startTime == null) return;
-
-        Location location = getAndCheckLocation(
-                commands[INDEX_OF_LOCATION_IN_INPUT]);
-        if (location == null) return;
-
-        Contact contact = getAndCheckContact(
-                commands[INDEX_OF_DEPARTMENT_IN_INPUT],
-                commands[INDEX_OF_EMAIL_IN_INPUT]);
-        if (contact == null) return;
-
-        int duration = getAndCheckDuration(
-                commands[INDEX_OF_DURATION_LENGTH_IN_INPUT]);
-        if(duration == 0) return;
-
-        Event eventToAdd = new Event(eventDate, startTime,
-                location, contact, duration);
-        boolean isEventAdded = eventCalender.add(eventToAdd);
-        if(!isEventAdded){
-            System.out.println("The event is already on the calendar.");
-            return;
-        }
-        System.out.println("Event added to the calendar.");
-    }
-
-    /**
-     * This method removes an event from the Event Calendar if it exists
-     * in the calendar. It also takes care of invalid inputs by calling
-     * helper methods: getEventDate, getStartTime, and getLocation.
-     * @param commands - The line input split by words.
-     */
-    private void cancelEvent(String[] commands){
-        Date eventDate = getAndCheckEventDate(
-                commands[INDEX_OF_DATE_IN_INPUT]);
-        if (eventDate == null) return;
-
-        Timeslot startTime = getAndCheckStartTime(
-                commands[INDEX_OF_TIME_IN_INPUT]);
-        if (startTime == null) return;
-
-        Location location = getAndCheckLocation(
-                commands[INDEX_OF_LOCATION_IN_INPUT]);
-        if (location == null) return;
-
-        Event eventToRemove = new Event(eventDate, startTime, location);
-        if(!(eventCalender.remove(eventToRemove))){
-            System.out.println("Cannot remove; " +
-                    "event is not in the calendar!");
-            return;
-        }
-        System.out.println("Event has been removed from the calendar!");
-    }
-
-    /**
-     * Utility method to make and validate the contact.
-     * @param department - department of the contact person
-     * @param email - email of contact person
-     * @return - returns a valid contact object. Null if not valid
-     */
-    private static Contact getAndCheckContact(String department, String email)
-    {
-        Department departmentOfEventMaker;
-        try{
-            departmentOfEventMaker = Department.valueOf(
-                    department.toUpperCase());
-        }catch (Exception e){
-            System.out.println("Invalid contact information!");
-            return null;
-        }
-        Contact contactOfEventMaker = new Contact(
-                departmentOfEventMaker, email);
-        if(!(contactOfEventMaker.isValid())){
-            System.out.println("Invalid contact information!");
-            return null;
-        }
-        return contactOfEventMaker;
-    }
-
-    /**
-     * Utility method to make and validate the location.
-     * @param location string location, building code, of the event
-     * @return returns a valid Location enum
-     */
-    private static Location getAndCheckLocation(String location) {
-        Location locationForEvent;
-        try{
-            locationForEvent = Location.valueOf(location.toUpperCase());
-        }catch (Exception e){
-            System.out.println("Invalid location!");
-            return null;
-        }
-        return locationForEvent;
-    }
-
-    /**
-     * Utility method to make and validate the start time
-     * @param startTime string start time
-     * @return returns a valid Timeslot enum. Null if not valid
-     */
-    private static Timeslot getAndCheckStartTime(String startTime) {
-        Timeslot startTimeToStartEventAt;
-        try{
-            startTimeToStartEventAt = Timeslot.valueOf(
-                    startTime.toUpperCase());
-        }catch (Exception e){
-            System.out.println("Invalid time slot!");
-            return null;
-        }
-        return startTimeToStartEventAt;
-    }
-
-    /**
-     * Utility method to make and validate the date.
-     * @param date date start time in format "MONTH/DAY/YEAR"
-     * @return returns a valid Date. Null if not valid
-     */
-    private static Date getAndCheckEventDate(String date) {
-        Date eventDateToAdd = new Date(date);
-        if(!(eventDateToAdd.isValid())){
-            System.out.printf("%s: Invalid calendar date!\n", date);
-            return null;
-        } else if (!(eventDateToAdd.isMoreThanPresentDate())) {
-            System.out.printf("%s: Event date must be a future date!\n",
-                    date);
-            return null;
-        } else if (!(eventDateToAdd.isLessThanDateSixMonthsInFuture())) {
-            System.out.printf("%s: Event date must be within 6 months!\n",
-                    date);
-            return null;
-        }
-        return eventDateToAdd;
-    }
-
-    /**
-     * Utility method to get and validate the duration
-     * @param duration string duration length
-     * @return returns a valid duration integer. 0 if not valid
-     */
-    private static int getAndCheckDuration(String duration){
-        if (Integer.parseInt(duration) > Event.MAX_DURATION) {
-            System.out.println("Event duration must be at least 30 minutes" +
-                    " and at most 120 minutes");
-            return 0;
-        } else if (Integer.parseInt(duration) < Event.MIN_DURATION) {
-            System.out.println("Event duration must be at least 30 minutes" +
-                    " and at most 120 minutes");
-            return 0;
-        }
-        return Integer.parseInt(duration);
-    }
-}
+package scheduler;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import scheduler.OrganizerMetrics.Command;
+import scheduler.OrganizerMetrics.Reason;
+
+/**
+ * This class interfaces with the user via the command line.
+ * An instance of this class can process a single command line
+ * or multiple command lines at a time.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class EventOrganizer {
+
+    private static final String CMD_ADD = "A";
+    private static final String CMD_CANCEL = "R";
+    private static final String CMD_PRINT = "P";
+    private static final String CMD_PRINT_BY_DATES = "PE";
+    private static final String CMD_PRINT_BY_CAMPUS = "PC";
+    private static final String CMD_PRINT_BY_DEPARTMENT = "PD";
+    private static final String CMD_QUERY = "PR";
+    private static final String CMD_FIND_FREE = "F";
+    private static final String CMD_QUIT = "Q";
+    private static final String CMD_STATS = "STATS";
+    private static final String CMD_EMPTY = "";
+    private static final int INDEX_OF_CMD_IN_INPUT = 0;
+    private static final int INDEX_OF_DATE_IN_INPUT = 1;
+    private static final int INDEX_OF_TIME_IN_INPUT = 2;
+    private static final int INDEX_OF_LOCATION_IN_INPUT = 3;
+    private static final int INDEX_OF_DEPARTMENT_IN_INPUT = 4;
+    private static final int INDEX_OF_EMAIL_IN_INPUT = 5;
+    private static final int INDEX_OF_DURATION_LENGTH_IN_INPUT = 6;
+    private static final int INDEX_OF_TO_DATE_IN_INPUT = 2;
+    private static final int INDEX_OF_FIRST_FILTER_IN_INPUT = 3;
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Department[] DEPARTMENTS = Department.values();
+    private static final long MAX_MAPPED_REGION = Integer.MAX_VALUE;
+    private static final int MAX_PENDING_ADDS = 1024;
+    private static final int DEFAULT_FREE_SLOTS = 1;
+
+
+
+
+    private CalendarStorage eventCalender;
+    private final PrintStream out; //where responses and listings go
+    private final ListingWriter listing; //renders query results
+    private final OrganizerMetrics metrics;
+    private final Path snapshotFile; //where the calendar is kept between
+    //runs, or null to keep it in memory only
+    private final Path logFile; //write-ahead log of changes since the last
+    //snapshot, or null for no log
+    private final long fsyncIntervalMillis;
+    private final CalendarBackend backend; //storage engine of the calendar,
+    //or null for the default of each mode
+    private EventLog eventLog;
+    private final ReadWriteLock changeLock; //shared by every add and cancel
+    //while it is applied and logged, and taken alone to compact the log, so
+    //a compaction never cuts the log past a change its snapshot misses;
+    //one lock for a server and all of its sessions
+    private boolean isBatchMode; //count add/cancel results instead of
+    //printing one message per line
+    private int numLines;
+    private int numAdded;
+    private int numDuplicates;
+    private int numRemoved;
+    private int numNotFound;
+    private int numInvalid;
+    private final Event[] pendingAdds; //valid adds not yet applied
+    private final long[] pendingAddStarts; //System.nanoTime when each
+    //pending add was read, for its latency once applied
+    private int numPendingAdds;
+    private final String[] pendingResponses; //responses held back behind
+    //the pending adds, with null standing for the result of the next add
+    private int numPendingResponses;
+
+    /**
+     * Instantiates an EventOrganizer whose calendar only lives in memory.
+     */
+    public EventOrganizer() {
+        this(null);
+    }
+
+    /**
+     * Instantiates an EventOrganizer that restores its calendar from a
+     * binary snapshot when it starts, and saves it back when it quits.
+     * @param snapshotFile The snapshot file, or null for no snapshot.
+     */
+    public EventOrganizer(Path snapshotFile) {
+        this(snapshotFile, null, 0);
+    }
+
+    /**
+     * Instantiates an EventOrganizer that restores its calendar from a
+     * binary snapshot plus the tail of a write-ahead log when it starts.
+     * Every add and cancel is logged while it runs, the log is compacted
+     * into a new snapshot whenever it grows too large, and once more when
+     * the organizer quits.
+     * @param snapshotFile The snapshot file, or null for no snapshot.
+     * @param logFile The log file, or null for no log. Needs a snapshot
+     *                file to compact into.
+     * @param fsyncIntervalMillis Longest time in milliseconds a logged
+     *                            change may wait before being forced to
+     *                            disk; 0 forces every change.
+     */
+    public EventOrganizer(Path snapshotFile, Path logFile,
+                          long fsyncIntervalMillis) {
+        this(snapshotFile, logFile, fsyncIntervalMillis, null);
+    }
+
+    /**
+     * Instantiates an EventOrganizer like the snapshot and log constructor
+     * does, with its calendar stored by the given backend.
+     * @param snapshotFile The snapshot file, or null for no snapshot.
+     * @param logFile The log file, or null for no log. Needs a snapshot
+     *                file to compact into.
+     * @param fsyncIntervalMillis Longest time in milliseconds a logged
+     *                            change may wait before being forced to
+     *                            disk; 0 forces every change.
+     * @param backend The storage engine of the calendar, or null for
+     *                CalendarBackend.ARRAY, or CalendarBackend.CONCURRENT
+     *                for a server.
+     */
+    public EventOrganizer(Path snapshotFile, Path logFile,
+                          long fsyncIntervalMillis, CalendarBackend backend) {
+        this.snapshotFile = snapshotFile;
+        this.logFile = snapshotFile == null ? null : logFile;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.backend = backend;
+        out = System.out;
+        listing = new ListingWriter();
+        metrics = OrganizerMetrics.getInstance();
+        changeLock = new ReentrantReadWriteLock();
+        pendingAdds = new Event[MAX_PENDING_ADDS];
+        pendingAddStarts = new long[MAX_PENDING_ADDS];
+        pendingResponses = new String[MAX_PENDING_ADDS * 2];
+    }
+
+    /**
+     * Instantiates an EventOrganizer for one session on a calendar that
+     * only lives in memory, such as a benchmark or a replay. The session
+     * leaves opening and saving the calendar to its caller.
+     * @param eventCalender The calendar to work on.
+     * @param out The stream to send responses and listings to.
+     */
+    public EventOrganizer(CalendarStorage eventCalender, PrintStream out) {
+        this(eventCalender, out, null, null, new ReentrantReadWriteLock());
+    }
+
+    /**
+     * Instantiates an EventOrganizer for one session on a calendar opened
+     * by another organizer.
+     * @param eventCalender The calendar to work on.
+     * @param out The stream to send responses and listings to.
+     * @param snapshotFile The snapshot file to compact the log into, or
+     *                     null for no snapshot.
+     * @param eventLog The log attached to the calendar, or null.
+     * @param changeLock The change lock of the organizer that opened the
+     *                   calendar.
+     */
+    private EventOrganizer(CalendarStorage eventCalender, PrintStream out,
+                           Path snapshotFile, EventLog eventLog,
+                           ReadWriteLock changeLock) {
+        this.eventCalender = eventCalender;
+        this.out = out;
+        listing = new ListingWriter();
+        metrics = OrganizerMetrics.getInstance();
+        metrics.setCalendar(eventCalender);
+        this.snapshotFile = snapshotFile;
+        logFile = null;
+        fsyncIntervalMillis = 0;
+        backend = null;
+        this.eventLog = eventLog;
+        this.changeLock = changeLock;
+        pendingAdds = new Event[MAX_PENDING_ADDS];
+        pendingAddStarts = new long[MAX_PENDING_ADDS];
+        pendingResponses = new String[MAX_PENDING_ADDS * 2];
+    }
+
+    /**
+     * Makes the organizer of one client session of a server. The session
+     * works on the calendar of this organizer, shared with the other
+     * sessions, and compacts its log when a change of the session makes
+     * it grow too large; opening and saving the calendar is left to this
+     * organizer.
+     * @param out The stream to send the responses and listings of the
+     *            session to.
+     * @return The organizer of the session.
+     */
+    public EventOrganizer newSession(PrintStream out) {
+        return new EventOrganizer(eventCalender, out, snapshotFile, eventLog,
+                changeLock);
+    }
+
+    /**
+     * This is the run method to make the User UI work.
+     * Will run until CMD_QUIT("Q") is inputted
+     * The last line of input must end in a "\n" new line character.
+     */
+    public void run() {
+        if (!(openCalendar(backendOr(CalendarBackend.ARRAY)))) {
+            return;
+        }
+        runSession(new InputStreamReader(System.in));
+        saveCalendar();
+    }
+
+    /**
+     * Runs the commands of one session until CMD_QUIT("Q") or the end of
+     * the input. Lines that are already buffered are pipelined: their adds
+     * are applied as one batch and all their responses are written with
+     * one flush, in line order. The output is flushed whenever no whole
+     * line is left waiting, so an interactive client still sees each
+     * response right away.
+     * @param input The source of the command lines.
+     */
+    public void runSession(Reader input) {
+        out.println("Event Organizer running...");
+        out.flush();
+        CommandTokenizer commands = new CommandTokenizer(input);
+        try {
+            while (commands.nextLine()) {
+                processCommand(commands);
+                if (!commands.hasBufferedLine()) {
+                    applyPendingAdds();
+                    out.flush();
+                }
+                compactLogIfNeeded();
+                if (commands.lineEquals(CMD_QUIT)) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            applyPendingAdds();
+            out.println("Could not read the input: " + e.getMessage());
+        }
+        applyPendingAdds();
+        out.flush();
+    }
+
+    /**
+     * Serves the command protocol to many clients at once over loopback
+     * TCP, all working on one shared calendar, a ConcurrentEventCalender
+     * unless another thread-safe backend is chosen. Runs until the process
+     * is stopped; then stops accepting clients, waits for the open
+     * sessions to finish, and saves the calendar.
+     * @param port The port to listen on, or 0 for any free port.
+     */
+    public void runServer(int port) {
+        CalendarBackend serverBackend = backendOr(
+                CalendarBackend.CONCURRENT);
+        if (!(serverBackend.isThreadSafe())) {
+            out.printf("The %s backend cannot be shared by a server!\n",
+                    serverBackend);
+            return;
+        }
+        if (!(openCalendar(serverBackend))) {
+            return;
+        }
+        EventServer server;
+        try {
+            server = new EventServer(this, port);
+        } catch (IOException e) {
+            out.println("Could not start the server: " + e.getMessage());
+            saveCalendar();
+            return;
+        }
+        metrics.registerMBean();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            saveCalendar();
+        }));
+        out.printf("Event Organizer listening on port %d...\n",
+                server.getPort());
+        server.serve();
+    }
+
+    /**
+     * Runs every command in a file without waiting on the console, for
+     * replaying large command files. The file is memory mapped and each
+     * line is tokenized straight from the mapped bytes. Add and cancel
+     * commands only update counters, and a summary is printed at the end;
+     * print commands still print. Stops early at CMD_QUIT("Q").
+     * @param commandFile The file of commands, one per line.
+     */
+    public void runBatch(Path commandFile) {
+        if (!(openCalendar(backendOr(CalendarBackend.ARRAY)))) {
+            return;
+        }
+        isBatchMode = true;
+        CommandTokenizer commands = new CommandTokenizer();
+        try (FileChannel channel = FileChannel.open(commandFile,
+                StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long regionStart = 0;
+            boolean isQuit = false;
+            while (regionStart < fileSize && !isQuit) {
+                long regionSize = Math.min(fileSize - regionStart,
+                        MAX_MAPPED_REGION);
+                boolean isLastRegion = regionStart + regionSize == fileSize;
+                MappedByteBuffer region = channel.map(
+                        FileChannel.MapMode.READ_ONLY, regionStart,
+                        regionSize);
+                while (commands.nextLine(region, isLastRegion)) {
+                    numLines++;
+                    processCommand(commands);
+                    compactLogIfNeeded();
+                    if (commands.lineEquals(CMD_QUIT)) {
+                        isQuit = true;
+                        break;
+                    }
+                }
+                //the next region starts at the line that was cut off
+                regionStart += isLastRegion ? regionSize : region.position();
+            }
+        } catch (IOException e) {
+            applyPendingAdds();
+            out.println("Could not read " + commandFile + ": " +
+                    e.getMessage());
+            return;
+        }
+        applyPendingAdds();
+        out.printf("Batch complete: %d lines, %d added, " +
+                        "%d duplicates, %d removed, %d not found, " +
+                        "%d invalid.\n", numLines, numAdded, numDuplicates,
+                numRemoved, numNotFound, numInvalid);
+        saveCalendar();
+    }
+
+    /**
+     * Utility method to create the calendar, restoring it from the
+     * snapshot file and replaying the log if there are any, and then
+     * attaching the log. If the snapshot or the log cannot be read, the
+     * organizer must not run: saving or compacting would write over the
+     * only copy of the events it could not read.
+     * @param calendarBackend The backend to store the calendar with.
+     * @return True if the calendar is ready, false if it could not be
+     *         restored.
+     */
+    private boolean openCalendar(CalendarBackend calendarBackend) {
+        eventCalender = calendarBackend.newCalendar();
+        if (snapshotFile != null && Files.exists(snapshotFile)) {
+            try {
+                int numLoaded = CalendarFile.load(snapshotFile,
+                        eventCalender);
+                out.printf("Loaded %d events from %s.\n", numLoaded,
+                        snapshotFile);
+            } catch (IOException e) {
+                out.println("Could not load the snapshot: " +
+                        e.getMessage());
+                out.println("Move " + snapshotFile + " aside to start " +
+                        "with an empty calendar.");
+                return false;
+            }
+        }
+        metrics.setCalendar(eventCalender);
+        if (logFile == null) {
+            return true;
+        }
+        try {
+            int numReplayed = EventLog.replay(logFile, eventCalender);
+            if (numReplayed > 0) {
+                out.printf("Replayed %d changes from %s.\n",
+                        numReplayed, logFile);
+            }
+            eventLog = new EventLog(logFile, fsyncIntervalMillis,
+                    EventLog.DEFAULT_COMPACTION_SIZE);
+            eventCalender.setLog(eventLog);
+        } catch (IOException e) {
+            out.println("Could not open the log: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Utility method to pick the backend of the calendar.
+     * @param defaultBackend The backend to use if none was chosen.
+     * @return The chosen backend, or defaultBackend.
+     */
+    private CalendarBackend backendOr(CalendarBackend defaultBackend) {
+        return backend == null ? defaultBackend : backend;
+    }
+
+    /**
+     * Utility method to fold the log into a new snapshot once it has grown
+     * past its compaction size. Changes are held off until the snapshot is
+     * written and the log is emptied.
+     */
+    private void compactLogIfNeeded() {
+        if (eventLog == null || !eventLog.needsCompaction()) {
+            return;
+        }
+        changeLock.writeLock().lock();
+        try {
+            if (eventLog.needsCompaction()) {
+                eventLog.compact(eventCalender, snapshotFile);
+            }
+        } catch (IOException e) {
+            out.println("Could not compact the log: " +
+                    e.getMessage());
+        } finally {
+            changeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Utility method to save the calendar to the snapshot file, if there
+     * is one. Changes are held off until it is saved.
+     */
+    private void saveCalendar() {
+        if (snapshotFile == null) {
+            return;
+        }
+        changeLock.writeLock().lock();
+        try {
+            if (eventLog != null) {
+                eventLog.compact(eventCalender, snapshotFile);
+                eventLog.close();
+                eventCalender.setLog(null);
+                eventLog = null;
+            } else {
+                CalendarFile.save(eventCalender, snapshotFile);
+            }
+        } catch (IOException e) {
+            out.println("Could not save the snapshot: " +
+                    e.getMessage());
+        } finally {
+            changeLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Utility method to show the result of an add or cancel command. In
+     * batch mode the result is only counted, not printed.
+     * @param message - The message for the user.
+     */
+    private void respond(String message) {
+        if (isBatchMode) {
+            return;
+        }
+        if (numPendingResponses == pendingResponses.length) {
+            applyPendingAdds();
+        }
+        if (numPendingAdds > 0) {
+            pendingResponses[numPendingResponses++] = message;
+        } else {
+            out.println(message);
+        }
+    }
+
+    /**
+     * Utility method to apply the pending adds to the calendar as one
+     * batch, then write their results and the responses held back behind
+     * them, in line order. Each add's latency runs from when its line was
+     * read until its result is written.
+     */
+    private void applyPendingAdds() {
+        if (numPendingAdds == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        boolean[] isAdded;
+        changeLock.readLock().lock();
+        try {
+            isAdded = eventCalender.addAll(pendingAdds, numPendingAdds);
+        } finally {
+            changeLock.readLock().unlock();
+        }
+        metrics.recordLatency(Command.ADD_BATCH, System.nanoTime() - start);
+        Arrays.fill(pendingAdds, 0, numPendingAdds, null);
+        numPendingAdds = 0;
+        int batchAdded = 0;
+        for (boolean isEventAdded : isAdded) {
+            if (isEventAdded) {
+                batchAdded++;
+            }
+        }
+        numAdded += batchAdded;
+        numDuplicates += isAdded.length - batchAdded;
+        metrics.recordAdds(batchAdded, isAdded.length - batchAdded);
+        int numResponses = numPendingResponses;
+        numPendingResponses = 0;
+        int nextResult = 0;
+        for (int i = 0; i < numResponses; i++) {
+            String message = pendingResponses[i];
+            pendingResponses[i] = null;
+            if (message == null) {
+                message = isAdded[nextResult++] ?
+                        "Event added to the calendar." :
+                        "The event is already on the calendar.";
+            }
+            out.println(message);
+        }
+        long end = System.nanoTime();
+        for (int i = 0; i < isAdded.length; i++) {
+            metrics.recordLatency(Command.ADD, end - pendingAddStarts[i]);
+        }
+    }
+
+    /**
+     * Utility method to reject an add or cancel command with invalid
+     * input.
+     * @param reason - What is invalid, for the metrics.
+     * @param message - The message explaining what is invalid.
+     */
+    private void reject(Reason reason, String message) {
+        numInvalid++;
+        metrics.recordInvalid(reason);
+        respond(message);
+    }
+
+    /**
+     * Runs the command on the current line of the tokenizer right away,
+     * without pipelining, and writes its response. Lets a caller such as
+     * ReplayHarness time single commands.
+     * @param commands - The tokenizer holding the current line.
+     */
+    public void runCommand(CommandTokenizer commands) {
+        processCommand(commands);
+        applyPendingAdds();
+        compactLogIfNeeded();
+    }
+
+    /**
+     * Runs the command on the current line of the tokenizer and records
+     * its latency, except for a valid add, whose latency is recorded when
+     * its batch is applied. Pending adds are applied first unless the
+     * command is another add, so responses keep their line order.
+     * @param commands - The tokenizer holding the current line.
+     */
+    private void processCommand(CommandTokenizer commands) {
+        if (!(commands.tokenEquals(INDEX_OF_CMD_IN_INPUT, CMD_ADD))) {
+            applyPendingAdds();
+        }
+        long start = System.nanoTime();
+        Command command = dispatchCommand(commands, start);
+        if (command != null) {
+            metrics.recordLatency(command, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Utility method to run the command on the current line.
+     * @param commands - The tokenizer holding the current line.
+     * @param start - System.nanoTime when the line was read.
+     * @return The command that was run, or null for an empty line or a
+     *         queued add.
+     */
+    private Command dispatchCommand(CommandTokenizer commands, long start) {
+        if (commands.tokenEquals(INDEX_OF_CMD_IN_INPUT, CMD_ADD)) {
+            return addEvent(commands, start) ? null : Command.ADD;
+        } else if (commands.tokenEquals(INDEX_OF_CMD_IN_INPUT, CMD_CANCEL)) {
+            cancelEvent(commands);
+            return Command.CANCEL;
+        } else if (commands.tokenEquals(INDEX_OF_CMD_IN_INPUT, CMD_PRINT)) {
+            eventCalender.print(out);
+            return Command.PRINT;
+        } else if (commands.tokenEquals(INDEX_OF_CMD_IN_INPUT,
+                CMD_PRINT_BY_CAMPUS)) {
+            eventCalender.printByCampus(out);
+            return Command.PRINT_BY_CAMPUS;
+        } else if (commands.tokenEquals(INDEX_OF_CMD_IN_INPUT,
+                CMD_PRINT_BY_DATES)) {
+            eventCalender.printByDate(out);
+            return Command.PRINT_BY_DATE;
+        } else if (commands.tokenEquals(INDEX_OF_CMD_IN_INPUT,
+                CMD_PRINT_BY_DEPARTMENT)) {
+            eventCalender.printByDepartment(out);
+            return Command.PRINT_BY_DEPARTMENT;
+        } else if (commands.tokenEquals(INDEX_OF_CMD_IN_INPUT, CMD_QUERY)) {
+            queryEvents(commands);
+            return Command.QUERY;
+        } else if (commands.tokenEquals(INDEX_OF_CMD_IN_INPUT,
+                CMD_FIND_FREE)) {
+            findFreeSlots(commands);
+            return Command.FIND_FREE;
+        } else if (commands.tokenEquals(INDEX_OF_CMD_IN_INPUT, CMD_STATS)) {
+            out.print(metrics.appendTo(new StringBuilder()));
+            return Command.STATS;
+        } else if (commands.tokenEquals(INDEX_OF_CMD_IN_INPUT, CMD_QUIT)) {
+            out.println("Event Organizer terminated.");
+            return Command.QUIT;
+        } else if (!(commands.tokenEquals(INDEX_OF_CMD_IN_INPUT,
+                CMD_EMPTY))) {
+            metrics.recordInvalid(Reason.COMMAND);
+            out.printf("%s is an invalid command!\n",
+                    commands.token(INDEX_OF_CMD_IN_INPUT));
+            return Command.INVALID;
+        }
+        return null;
+    }
+
+    /**
+     * This method adds an event from the Event Calendar if the event
+     * does not already exist in the calendar. It also takes care of
+     * invalid inputs by calling helper methods: getEventDate, getStartTime,
+     * getLocation, getContact, and getDuration. A valid event is queued
+     * and added with the rest of the pipelined batch.
+     * @param commands - The tokenizer holding the current line.
+     * @param start - System.nanoTime when the line was read.
+     * @return True if the event is queued, false if the input is invalid.
+     */
+    private boolean addEvent(CommandTokenizer commands, long start){
+        Date eventDate = getAndCheckEventDate(commands);
+        if (eventDate == null) return false;
+
+        Timeslot startTime = getAndCheckStartTime(commands);
+        if (startTime == null) return false;
+
+        Location location = getAndCheckLocation(commands);
+        if (location == null) return false;
+
+        Contact contact = getAndCheckContact(commands);
+        if (contact == null) return false;
+
+        int duration = getAndCheckDuration(commands);
+        if(duration == 0) return false;
+
+        Event eventToAdd = new Event(eventDate, startTime,
+                location, contact, duration);
+        if (numPendingAdds == pendingAdds.length ||
+                numPendingResponses == pendingResponses.length) {
+            applyPendingAdds();
+        }
+        pendingAddStarts[numPendingAdds] = start;
+        pendingAdds[numPendingAdds++] = eventToAdd;
+        if (!isBatchMode) {
+            pendingResponses[numPendingResponses++] = null;
+        }
+        return true;
+    }
+
+    /**
+     * This method removes an event from the Event Calendar if it exists
+     * in the calendar. It also takes care of invalid inputs by calling
+     * helper methods: getEventDate, getStartTime, and getLocation.
+     * @param commands - The tokenizer holding the current line.
+     */
+    private void cancelEvent(CommandTokenizer commands){
+        Date eventDate = getAndCheckEventDate(commands);
+        if (eventDate == null) return;
+
+        Timeslot startTime = getAndCheckStartTime(commands);
+        if (startTime == null) return;
+
+        Location location = getAndCheckLocation(commands);
+        if (location == null) return;
+
+        Event eventToRemove = new Event(eventDate, startTime, location);
+        boolean isRemoved;
+        changeLock.readLock().lock();
+        try {
+            isRemoved = eventCalender.remove(eventToRemove);
+        } finally {
+            changeLock.readLock().unlock();
+        }
+        if(!isRemoved){
+            numNotFound++;
+            metrics.recordCancel(false);
+            respond("Cannot remove; event is not in the calendar!");
+            return;
+        }
+        numRemoved++;
+        metrics.recordCancel(true);
+        respond("Event has been removed from the calendar!");
+    }
+
+    /**
+     * This method lists the events between two dates, inclusive, given as
+     * "PR fromDate toDate" followed by any of a location, a department and
+     * a timeslot to filter by, in any order. Only the events in the date
+     * range are read from the calendar's date index.
+     * @param commands - The tokenizer holding the current line.
+     */
+    private void queryEvents(CommandTokenizer commands) {
+        EventQuery query = getAndCheckQuery(commands, false);
+        if (query == null) return;
+
+        Iterator<Event> matches = eventCalender.query(query);
+        if (!(matches.hasNext())) {
+            ListingWriter.printNoMatches(out);
+            return;
+        }
+        listing.begin(ListingWriter.rangeHeader(query.getFromDate(),
+                query.getToDate()));
+        while (matches.hasNext()) {
+            listing.append(matches.next());
+        }
+        listing.end(out);
+    }
+
+    /**
+     * This method lists the earliest free slots between two dates,
+     * inclusive, given as "F fromDate toDate" followed by any of a number
+     * of slots to list (1 by default), a location and a timeslot, in any
+     * order. The range is narrowed to the dates an event can be added on,
+     * and is searched in one pass over the calendar's occupancy bitmaps.
+     * @param commands - The tokenizer holding the current line.
+     */
+    private void findFreeSlots(CommandTokenizer commands) {
+        EventQuery query = getAndCheckQuery(commands, true);
+        if (query == null) return;
+
+        int maxSlots = DEFAULT_FREE_SLOTS;
+        for (int i = INDEX_OF_FIRST_FILTER_IN_INPUT;
+             i < commands.tokenCount(); i++) {
+            if (commands.parseInt(i) != CommandTokenizer.INVALID_NUMBER) {
+                maxSlots = commands.parseInt(i);
+            }
+        }
+        Date fromDate = query.getFromDate().isMoreThanPresentDate() ?
+                query.getFromDate() : Date.PRESENT_DATE.nextDay();
+        Date toDate = query.getToDate().isLessThanDateSixMonthsInFuture() ?
+                query.getToDate() : Date.SIX_MONTHS_IN_FUTURE_DATE;
+        Event[] freeSlots = toDate.compareTo(fromDate) < 0 ? new Event[0] :
+                eventCalender.findAvailable(new EventQuery(fromDate, toDate,
+                        query.getLocation(), null, query.getTimeslot()),
+                        maxSlots);
+        if (freeSlots.length == 0) {
+            ListingWriter.printNoFreeSlots(out);
+            return;
+        }
+        listing.begin(ListingWriter.freeSlotsHeader(fromDate, toDate));
+        for (Event freeSlot : freeSlots) {
+            listing.appendSlot(freeSlot);
+        }
+        listing.end(out, ListingWriter.FOOTER_FREE_SLOTS);
+    }
+
+    /**
+     * Utility method to make and validate a query: two dates, followed by
+     * any of a location, a department and a timeslot to filter by.
+     * @param commands - The tokenizer holding the current line.
+     * @param isCountAllowed - True to also accept a positive number of
+     *                         results among the filters.
+     * @return returns a valid EventQuery. Null if not valid
+     */
+    private EventQuery getAndCheckQuery(CommandTokenizer commands,
+                                        boolean isCountAllowed) {
+        Date fromDate = getAndCheckQueryDate(commands,
+                INDEX_OF_DATE_IN_INPUT);
+        if (fromDate == null) return null;
+
+        Date toDate = getAndCheckQueryDate(commands,
+                INDEX_OF_TO_DATE_IN_INPUT);
+        if (toDate == null) return null;
+
+        if (toDate.compareTo(fromDate) < 0) {
+            metrics.recordInvalid(Reason.DATE);
+            out.println("The end date must not be before the start date!");
+            return null;
+        }
+        Location location = null;
+        Department department = null;
+        Timeslot timeslot = null;
+        for (int i = INDEX_OF_FIRST_FILTER_IN_INPUT;
+             i < commands.tokenCount(); i++) {
+            Location locationFilter = commands.parseEnum(i, LOCATIONS);
+            Department departmentFilter = commands.parseEnum(i,
+                    DEPARTMENTS);
+            Timeslot timeslotFilter = commands.parseEnum(i, TIMESLOTS);
+            if (locationFilter != null) {
+                location = locationFilter;
+            } else if (departmentFilter != null) {
+                department = departmentFilter;
+            } else if (timeslotFilter != null) {
+                timeslot = timeslotFilter;
+            } else if (!(isCountAllowed && commands.parseInt(i) > 0)) {
+                metrics.recordInvalid(Reason.FILTER);
+                out.printf("%s is an invalid filter!\n", commands.token(i));
+                return null;
+            }
+        }
+        return new EventQuery(fromDate, toDate, location, department,
+                timeslot);
+    }
+
+    /**
+     * Utility method to make and validate a date of a query. Unlike the
+     * date of an add, it may be in the past or far in the future.
+     * @param commands - The tokenizer holding the current line.
+     * @param index - Index of the date on the line.
+     * @return returns a valid Date. Null if not valid
+     */
+    private Date getAndCheckQueryDate(CommandTokenizer commands, int index) {
+        Date date = commands.parseDate(index);
+        if (date == null || !(date.isValid())) {
+            metrics.recordInvalid(Reason.DATE);
+            out.println(commands.token(index) + ": Invalid calendar date!");
+            return null;
+        }
+        return date;
+    }
+
+    /**
+     * Utility method to make and validate the contact. Valid contacts are
+     * interned, so every event of the same contact shares one Contact.
+     * @param commands - The tokenizer holding the current line.
+     * @return - returns a valid contact object. Null if not valid
+     */
+    private Contact getAndCheckContact(CommandTokenizer commands)
+    {
+        Department departmentOfEventMaker = commands.parseEnum(
+                INDEX_OF_DEPARTMENT_IN_INPUT, DEPARTMENTS);
+        if (departmentOfEventMaker == null) {
+            reject(Reason.CONTACT, "Invalid contact information!");
+            return null;
+        }
+        String emailOfEventMaker = commands.token(INDEX_OF_EMAIL_IN_INPUT);
+        if(!(Contact.isValidEmail(emailOfEventMaker))){
+            reject(Reason.CONTACT, "Invalid contact information!");
+            return null;
+        }
+        return Contact.of(departmentOfEventMaker, emailOfEventMaker);
+    }
+
+    /**
+     * Utility method to make and validate the location.
+     * @param commands - The tokenizer holding the current line.
+     * @return returns a valid Location enum. Null if not valid
+     */
+    private Location getAndCheckLocation(CommandTokenizer commands) {
+        Location locationForEvent = commands.parseEnum(
+                INDEX_OF_LOCATION_IN_INPUT, LOCATIONS);
+        if (locationForEvent == null) {
+            reject(Reason.LOCATION, "Invalid location!");
+        }
+        return locationForEvent;
+    }
+
+    /**
+     * Utility method to make and validate the start time
+     * @param commands - The tokenizer holding the current line.
+     * @return returns a valid Timeslot enum. Null if not valid
+     */
+    private Timeslot getAndCheckStartTime(CommandTokenizer commands) {
+        Timeslot startTimeToStartEventAt = commands.parseEnum(
+                INDEX_OF_TIME_IN_INPUT, TIMESLOTS);
+        if (startTimeToStartEventAt == null) {
+            reject(Reason.TIMESLOT, "Invalid time slot!");
+        }
+        return startTimeToStartEventAt;
+    }
+
+    /**
+     * Utility method to make and validate the date, given in the
+     * format "MONTH/DAY/YEAR".
+     * @param commands - The tokenizer holding the current line.
+     * @return returns a valid Date. Null if not valid
+     */
+    private Date getAndCheckEventDate(CommandTokenizer commands) {
+        Date eventDateToAdd = commands.parseDate(INDEX_OF_DATE_IN_INPUT);
+        if(eventDateToAdd == null || !(eventDateToAdd.isValid())){
+            reject(Reason.DATE, commands.token(INDEX_OF_DATE_IN_INPUT) +
+                    ": Invalid calendar date!");
+            return null;
+        } else if (!(eventDateToAdd.isMoreThanPresentDate())) {
+            reject(Reason.PAST_DATE, commands.token(
+                    INDEX_OF_DATE_IN_INPUT) +
+                    ": Event date must be a future date!");
+            return null;
+        } else if (!(eventDateToAdd.isLessThanDateSixMonthsInFuture())) {
+            reject(Reason.FAR_DATE, commands.token(
+                    INDEX_OF_DATE_IN_INPUT) +
+                    ": Event date must be within 6 months!");
+            return null;
+        }
+        return eventDateToAdd;
+    }
+
+    /**
+     * Utility method to get and validate the duration
+     * @param commands - The tokenizer holding the current line.
+     * @return returns a valid duration integer. 0 if not valid
+     */
+    private int getAndCheckDuration(CommandTokenizer commands){
+        int duration = commands.parseInt(INDEX_OF_DURATION_LENGTH_IN_INPUT);
+        if (duration == CommandTokenizer.INVALID_NUMBER ||
+                duration > Event.MAX_DURATION ||
+                duration < Event.MIN_DURATION) {
+            reject(Reason.DURATION,
+                    "Event duration must be at least 30 minutes" +
+                    " and at most 120 minutes");
+            return 0;
+        }
+        return duration;
+    }
+}
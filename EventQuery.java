@@ -0,0 +1,172 @@
+package scheduler;
+
+/**
+ * Immutable description of the events to look up on a calendar: a range of
+ * dates, and optionally one location, one department and one timeslot.
+ * <p>
+ * The date range is kept as a range of slot keys, so a calendar with a
+ * date-ordered index can seek straight to the first event of the range
+ * and stop after the last one, instead of scanning the whole calendar.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class EventQuery {
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+
+    private final Date fromDate;
+    private final Date toDate;
+    private final Location location; //null matches every location
+    private final Department department; //null matches every department
+    private final Timeslot timeslot; //null matches every timeslot
+    private final long fromKey; //slot key of the first slot of fromDate
+    private final long toKey; //slot key of the last slot of toDate
+
+    /**
+     * Instantiates a query for every event from one date to another.
+     * @param fromDate First date of the range, inclusive.
+     * @param toDate Last date of the range, inclusive.
+     */
+    public EventQuery(Date fromDate, Date toDate) {
+        this(fromDate, toDate, null, null, null);
+    }
+
+    /**
+     * Instantiates a query for the events from one date to another that
+     * match every given filter.
+     * @param fromDate First date of the range, inclusive.
+     * @param toDate Last date of the range, inclusive.
+     * @param location The location to match, or null for any.
+     * @param department The department to match, or null for any.
+     * @param timeslot The timeslot to match, or null for any.
+     */
+    public EventQuery(Date fromDate, Date toDate, Location location,
+                      Department department, Timeslot timeslot) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.location = location;
+        this.department = department;
+        this.timeslot = timeslot;
+        fromKey = lowerBound().getSlotKey();
+        toKey = upperBound().getSlotKey();
+    }
+
+    /**
+     * Getter method for the first date of the range.
+     * @return The first date, inclusive.
+     */
+    public Date getFromDate() {
+        return fromDate;
+    }
+
+    /**
+     * Getter method for the last date of the range.
+     * @return The last date, inclusive.
+     */
+    public Date getToDate() {
+        return toDate;
+    }
+
+    /**
+     * Getter method for the location filter.
+     * @return The location to match, or null for any.
+     */
+    public Location getLocation() {
+        return location;
+    }
+
+    /**
+     * Getter method for the department filter.
+     * @return The department to match, or null for any.
+     */
+    public Department getDepartment() {
+        return department;
+    }
+
+    /**
+     * Getter method for the timeslot filter.
+     * @return The timeslot to match, or null for any.
+     */
+    public Timeslot getTimeslot() {
+        return timeslot;
+    }
+
+    /**
+     * Makes an incomplete event that sorts at or before every event of
+     * the range in Event.BY_DATE order.
+     * @return The lower bound of the range.
+     */
+    public Event lowerBound() {
+        return new Event(fromDate, TIMESLOTS[0], LOCATIONS[0]);
+    }
+
+    /**
+     * Makes an incomplete event that sorts at or after every event of the
+     * range in Event.BY_DATE order.
+     * @return The upper bound of the range.
+     */
+    public Event upperBound() {
+        return new Event(toDate, TIMESLOTS[TIMESLOTS.length - 1],
+                LOCATIONS[LOCATIONS.length - 1]);
+    }
+
+    /**
+     * Getter method for the key of the first day of the range.
+     * @return The day key of the first date, as ConcurrentEventCalender
+     *         computes it.
+     */
+    public long getFromDayKey() {
+        return Math.floorDiv(fromKey, Event.SLOTS_PER_DAY);
+    }
+
+    /**
+     * Getter method for the key of the last day of the range.
+     * @return The day key of the last date.
+     */
+    public long getToDayKey() {
+        return Math.floorDiv(toKey, Event.SLOTS_PER_DAY);
+    }
+
+    /**
+     * Makes the bitmap of the slots of a day that pass the location and
+     * timeslot filters, with bit i standing for slot i.
+     * @return The bitmap of allowed slots.
+     */
+    public int slotMask() {
+        int mask = 0;
+        for (int slot = 0; slot < Event.SLOTS_PER_DAY; slot++) {
+            if (matchesSlot(slot)) {
+                mask |= 1 << slot;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Checks if a (timeslot, location) slot of a day passes the location
+     * and timeslot filters, so a calendar indexed by slot can skip the
+     * other slots without looking at their events.
+     * @param slot The slot, from 0 to Event.SLOTS_PER_DAY - 1.
+     * @return True if events in the slot can match the query.
+     */
+    public boolean matchesSlot(int slot) {
+        return (location == null ||
+                slot % Event.NUM_LOCATIONS == location.ordinal()) &&
+                (timeslot == null ||
+                        slot / Event.NUM_LOCATIONS == timeslot.ordinal());
+    }
+
+    /**
+     * Checks if an event matches the date range and every filter.
+     * @param event The event to check; must have a contact if the query
+     *              filters by department.
+     * @return True if the event matches the query.
+     */
+    public boolean matches(Event event) {
+        long slotKey = event.getSlotKey();
+        return slotKey >= fromKey && slotKey <= toKey &&
+                (location == null || event.getLocation() == location) &&
+                (timeslot == null || event.getStartTime() == timeslot) &&
+                (department == null ||
+                        event.getContact().getDepartment() == department);
+    }
+}
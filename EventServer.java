@@ -0,0 +1,177 @@
+package scheduler;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loopback TCP front-end that lets many clients speak the command protocol
+ * at the same time, each in its own EventOrganizer session, against one
+ * shared thread-safe calendar.
+ * <p>
+ * Closing the server stops accepting clients and closes the input of
+ * every open session, so each one applies the commands it has already
+ * read, answers them and ends; close returns once they all have, which
+ * lets the calendar be saved with no session still writing to it.
+ * <p>
+ * Every connection is handled on its own virtual thread when the runtime
+ * has them, so thousands of mostly idle clients cost almost nothing;
+ * on older runtimes a cached pool of platform threads is used instead.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class EventServer implements AutoCloseable {
+    private static final int CONNECTION_BACKLOG = 128;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final String VIRTUAL_THREAD_FACTORY =
+            "newVirtualThreadPerTaskExecutor";
+
+    private final EventOrganizer organizer;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+    private final Set<Socket> clients; //connected clients, until their
+    //session ends
+
+    /**
+     * Opens the server socket on the loopback address.
+     * @param organizer The organizer whose calendar every session shares;
+     *                  the calendar must be thread-safe, like
+     *                  ConcurrentEventCalender.
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public EventServer(EventOrganizer organizer, int port)
+            throws IOException {
+        this.organizer = organizer;
+        clients = ConcurrentHashMap.newKeySet();
+        serverSocket = new ServerSocket(port, CONNECTION_BACKLOG,
+                InetAddress.getLoopbackAddress());
+        sessions = newSessionExecutor();
+    }
+
+    /**
+     * Getter method for the port the server listens on.
+     * @return The local port of the server socket.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts clients until the server is closed, starting a session for
+     * each one.
+     */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                clients.add(client);
+                try {
+                    sessions.execute(() -> runSession(client));
+                } catch (RejectedExecutionException e) {
+                    //the server is closing
+                    clients.remove(client);
+                    closeQuietly(client);
+                }
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.out.println("Could not accept a client: " +
+                            e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting clients, ends the input of the open sessions and
+     * waits for them to finish. A session still running after
+     * SHUTDOWN_TIMEOUT_SECONDS(10), such as one whose client stopped
+     * reading its responses, is cut off by closing its socket.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            //the socket is unusable either way
+        }
+        sessions.shutdown();
+        for (Socket client : clients) {
+            try {
+                client.shutdownInput();
+            } catch (IOException e) {
+                //the client is already gone
+            }
+        }
+        try {
+            if (!(sessions.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS,
+                    TimeUnit.SECONDS))) {
+                for (Socket client : clients) {
+                    closeQuietly(client);
+                }
+                sessions.shutdownNow();
+                sessions.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS,
+                        TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Utility method to run the session of one client until it quits or
+     * disconnects. The protocol is ASCII, so ISO-8859-1 is used both ways.
+     * @param client The connected client.
+     */
+    private void runSession(Socket client) {
+        try (client; PrintStream out = new PrintStream(
+                new BufferedOutputStream(client.getOutputStream()), false,
+                StandardCharsets.ISO_8859_1)) {
+            organizer.newSession(out).runSession(
+                    new InputStreamReader(client.getInputStream(),
+                            StandardCharsets.ISO_8859_1));
+        } catch (IOException e) {
+            //the client disconnected; nothing is left to answer
+        } finally {
+            clients.remove(client);
+        }
+    }
+
+    /**
+     * Utility method to close the socket of a client that is being cut
+     * off.
+     * @param client The client.
+     */
+    private static void closeQuietly(Socket client) {
+        try {
+            client.close();
+        } catch (IOException e) {
+            //the socket is unusable either way
+        }
+    }
+
+    /**
+     * Utility method to make the executor that runs the sessions: one
+     * virtual thread per session if the runtime has virtual threads,
+     * otherwise a cached pool of platform threads.
+     * @return The executor.
+     */
+    private static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod(
+                    VIRTUAL_THREAD_FACTORY).invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Index of the [start, end) intervals booked in every location on every
+ * day, used to reject a booking that overlaps another one in the same room.
+ * <p>
+ * A room has only Event.NUM_TIMESLOTS(3) slots a day, so each (day,
+ * location) pair in use gets a fixed block of NUM_TIMESLOTS entries in one
+ * shared array, one entry per timeslot, and a check is a scan of the
+ * block, as in ConcurrentEventCalender. Blocks are found through a
+ * SlotTable keyed on the packed day and location, and the blocks of rooms
+ * that become empty are reused, so after the array has grown adds and
+ * removes never box and never allocate.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class IntervalIndex {
+    private static final int INITIAL_ROOMS = 16;
+    private static final int GROWTH_FACTOR = 2;
+
+    private final SlotTable rooms; //block of every room in use, keyed by
+    //day and location, see roomKeyOf
+    private Event[] bookings; //NUM_TIMESLOTS entries per block, by
+    //timeslot ordinal
+    private int[] freeRooms; //blocks free for reuse
+    private int numFreeRooms;
+    private int numRooms; //blocks ever handed out
+
+    /**
+     * Instantiates an empty IntervalIndex.
+     */
+    public IntervalIndex() {
+        rooms = new SlotTable();
+        bookings = new Event[INITIAL_ROOMS * Event.NUM_TIMESLOTS];
+        freeRooms = new int[INITIAL_ROOMS];
+    }
+
+    /**
+     * Finds a booking that overlaps the given event in its location.
+     * @param event The event to check.
+     * @return An overlapping event, or null if the room is free for the
+     *         whole duration of the event.
+     */
+    public Event findOverlap(Event event) {
+        int room = rooms.get(roomKeyOf(event));
+        if (room == SlotTable.NOT_FOUND) {
+            return null;
+        }
+        int first = room * Event.NUM_TIMESLOTS;
+        for (int i = first; i < first + Event.NUM_TIMESLOTS; i++) {
+            Event booked = bookings[i];
+            if (booked != null && booked.overlaps(event)) {
+                return booked;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the interval of an event. The caller must have checked that it
+     * does not overlap any other booking, with findOverlap.
+     * @param event The event to add.
+     */
+    public void add(Event event) {
+        long roomKey = roomKeyOf(event);
+        int room = rooms.get(roomKey);
+        if (room == SlotTable.NOT_FOUND) {
+            room = newRoom();
+            rooms.put(roomKey, room);
+        }
+        bookings[room * Event.NUM_TIMESLOTS +
+                event.getStartTime().ordinal()] = event;
+    }
+
+    /**
+     * Removes the interval of an event, if it is in the index.
+     * @param event The event to remove; only its date, timeslot and
+     *              location are used.
+     */
+    public void remove(Event event) {
+        long roomKey = roomKeyOf(event);
+        int room = rooms.get(roomKey);
+        if (room == SlotTable.NOT_FOUND) {
+            return;
+        }
+        int first = room * Event.NUM_TIMESLOTS;
+        int entry = first + event.getStartTime().ordinal();
+        if (!(event.equals(bookings[entry]))) {
+            return;
+        }
+        bookings[entry] = null;
+        for (int i = first; i < first + Event.NUM_TIMESLOTS; i++) {
+            if (bookings[i] != null) {
+                return;
+            }
+        }
+        rooms.remove(roomKey);
+        freeRooms[numFreeRooms++] = room;
+    }
+
+    /**
+     * Utility method to get an empty block for a room, reusing a freed
+     * one if there is any and growing the arrays by GROWTH_FACTOR(2)
+     * otherwise.
+     * @return The block.
+     */
+    private int newRoom() {
+        if (numFreeRooms > 0) {
+            return freeRooms[--numFreeRooms];
+        }
+        if ((numRooms + 1) * Event.NUM_TIMESLOTS > bookings.length) {
+            bookings = Arrays.copyOf(bookings,
+                    bookings.length * GROWTH_FACTOR);
+            freeRooms = Arrays.copyOf(freeRooms,
+                    freeRooms.length * GROWTH_FACTOR);
+        }
+        return numRooms++;
+    }
+
+    /**
+     * Utility method to get the key of the room and day an event is in.
+     * @param event The event.
+     * @return The packed date and location of the event.
+     */
+    private static long roomKeyOf(Event event) {
+        long dayKey = Math.floorDiv(event.getSlotKey(), Event.SLOTS_PER_DAY);
+        return dayKey * Event.NUM_LOCATIONS + event.getLocation().ordinal();
+    }
+}
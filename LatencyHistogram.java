@@ -0,0 +1,150 @@
+package scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, thread-safe histogram of latencies in nanoseconds, in the
+ * style of HdrHistogram.
+ * <p>
+ * Buckets are log-linear: values below 2^SUB_BUCKET_BITS(64) get a bucket
+ * each, and every power of two above is split into HALF_SUB_BUCKETS(32)
+ * equal buckets, so any value is reported within about 3% while the whole
+ * long range fits in under 2000 counters. Recording is one array index
+ * computation and an atomic increment, with no allocation and no locking;
+ * all the work of computing percentiles happens when the histogram is
+ * read.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int NUM_BUCKETS =
+            (Long.SIZE + 1 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+    private static final double PERCENT = 100.0;
+
+    private final AtomicLongArray counts;
+    private final LongAdder sum;
+    private final AtomicLong max;
+
+    /**
+     * Instantiates an empty histogram.
+     */
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(NUM_BUCKETS);
+        sum = new LongAdder();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Records one latency.
+     * @param nanos The latency in nanoseconds; negative values count as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(indexOf(value));
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Getter method for the number of recorded latencies.
+     * @return The number of recorded latencies.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Getter method for the mean of the recorded latencies.
+     * @return The mean in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Getter method for the largest recorded latency.
+     * @return The exact maximum in nanoseconds, or 0 if nothing was
+     *         recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Computes a percentile of the recorded latencies.
+     * @param percentile The percentile, from 0 to 100.
+     * @return The highest value that falls in the same bucket as the
+     *         percentile, in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[NUM_BUCKETS];
+        long count = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / PERCENT *
+                count));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Clears every recorded latency.
+     */
+    public void reset() {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * Utility method to find the bucket of a value.
+     * @param value A value of 0 or more.
+     * @return The index of its bucket.
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) -
+                SUB_BUCKET_BITS;
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Utility method to find the highest value that falls in a bucket.
+     * @param index The index of the bucket.
+     * @return The highest value of the bucket.
+     */
+    private static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF_SUB_BUCKETS - 1;
+        long subBucket = index - (long) shift * HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,151 @@
+package scheduler;
+
+import java.io.PrintStream;
+
+/**
+ * Renders a listing of events into one reusable buffer and writes the whole
+ * listing to its output with a single print, so printing a large calendar
+ * is not dominated by formatting and per-line console writes.
+ * An instance is not thread safe; share one only within a single thread.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class ListingWriter {
+    public static final String HEADER_ALL = "* Event calendar *";
+    public static final String HEADER_BY_DATE =
+            "* Event calendar by event date and start time *";
+    public static final String HEADER_BY_CAMPUS =
+            "* Event calendar by campus and building *";
+    public static final String HEADER_BY_DEPARTMENT =
+            "* Event calendar by department *";
+    public static final String FOOTER = "* end of event calendar *";
+    public static final String FOOTER_FREE_SLOTS = "* end of free slots *";
+    private static final String EMPTY_CALENDAR = "Event calendar is empty!";
+    private static final String NO_MATCHES = "No events match the query!";
+    private static final String NO_FREE_SLOTS =
+            "No free slots in the date range!";
+
+    private final StringBuilder output; //reused to render every listing
+
+    /**
+     * Instantiates a ListingWriter with an empty buffer.
+     */
+    public ListingWriter() {
+        output = new StringBuilder();
+    }
+
+    /**
+     * Prints the message shown instead of a listing when the calendar has
+     * no events.
+     * @param out The stream to print to.
+     */
+    public static void printEmpty(PrintStream out) {
+        out.println(EMPTY_CALENDAR);
+    }
+
+    /**
+     * Prints the message shown instead of a listing when no event matches
+     * a query.
+     * @param out The stream to print to.
+     */
+    public static void printNoMatches(PrintStream out) {
+        out.println(NO_MATCHES);
+    }
+
+    /**
+     * Prints the message shown instead of a listing when a date range has
+     * no free slots.
+     * @param out The stream to print to.
+     */
+    public static void printNoFreeSlots(PrintStream out) {
+        out.println(NO_FREE_SLOTS);
+    }
+
+    /**
+     * Makes the header line of a listing of the free slots in a date
+     * range.
+     * @param fromDate First date of the range.
+     * @param toDate Last date of the range.
+     * @return The header line.
+     */
+    public static String freeSlotsHeader(Date fromDate, Date toDate) {
+        StringBuilder header = new StringBuilder("* Free slots from ");
+        appendPlainDate(header, fromDate).append(" to ");
+        return appendPlainDate(header, toDate).append(" *").toString();
+    }
+
+    /**
+     * Makes the header line of a listing of the events in a date range.
+     * @param fromDate First date of the range.
+     * @param toDate Last date of the range.
+     * @return The header line.
+     */
+    public static String rangeHeader(Date fromDate, Date toDate) {
+        StringBuilder header = new StringBuilder("* Event calendar from ");
+        appendPlainDate(header, fromDate).append(" to ");
+        return appendPlainDate(header, toDate).append(" *").toString();
+    }
+
+    /**
+     * Utility method to append a date as MONTH/DAY/YEAR, without the
+     * label Date.toString puts around it.
+     * @param builder The builder to append to.
+     * @param date The date.
+     * @return The same builder, for chaining.
+     */
+    private static StringBuilder appendPlainDate(StringBuilder builder,
+                                                 Date date) {
+        Date.appendTwoDigits(builder, date.getMonth().ordinal() + 1)
+                .append('/');
+        Date.appendTwoDigits(builder, date.getDay()).append('/');
+        return builder.append(date.getYear());
+    }
+
+    /**
+     * Starts a listing in the buffer.
+     * @param header Header line of the listing.
+     */
+    public void begin(String header) {
+        output.setLength(0);
+        output.append(header).append(System.lineSeparator());
+    }
+
+    /**
+     * Renders one event of the listing into the buffer.
+     * @param event The next event of the listing.
+     */
+    public void append(Event event) {
+        event.appendTo(output).append(System.lineSeparator());
+    }
+
+    /**
+     * Renders one free slot of the listing into the buffer: its date,
+     * start time and location.
+     * @param slot An incomplete event taking the free slot.
+     */
+    public void appendSlot(Event slot) {
+        slot.getDate().appendTo(output).append(' ');
+        slot.getStartTime().appendTo(output).append(' ');
+        slot.getLocation().appendTo(output).append(System.lineSeparator());
+    }
+
+    /**
+     * Finishes the listing and writes the whole buffer with a single print.
+     * @param out The stream to print to.
+     */
+    public void end(PrintStream out) {
+        end(out, FOOTER);
+    }
+
+    /**
+     * Finishes the listing with the given footer line and writes the whole
+     * buffer with a single print.
+     * @param out The stream to print to.
+     * @param footer Footer line of the listing.
+     */
+    public void end(PrintStream out, String footer) {
+        output.append(footer).append(System.lineSeparator());
+        out.print(output);
+        out.flush();
+        output.setLength(0);
+    }
+}
@@ -0,0 +1,327 @@
+package scheduler;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters and per-command latency histograms of every EventOrganizer in
+ * the process, shared by all the sessions of a server.
+ * <p>
+ * Counters are LongAdders and histograms are LatencyHistograms, so
+ * recording never locks and costs a few nanoseconds, and nothing is
+ * summed or sorted until the metrics are read through the STATS command or
+ * through JMX, where a server registers the single instance as
+ * OBJECT_NAME.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class OrganizerMetrics implements OrganizerMetricsMXBean {
+    public static final String OBJECT_NAME =
+            "scheduler:type=OrganizerMetrics";
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final double MEDIAN = 50;
+    private static final double P99 = 99;
+
+    /**
+     * The commands whose latency is recorded. ADD covers one add line from
+     * when it is read until its result is written, including the wait for
+     * the rest of its pipelined batch; ADD_BATCH covers applying one batch
+     * of adds to the calendar.
+     */
+    public enum Command {
+        ADD, ADD_BATCH, CANCEL, PRINT, PRINT_BY_DATE, PRINT_BY_CAMPUS,
+        PRINT_BY_DEPARTMENT, QUERY, FIND_FREE, STATS, QUIT, INVALID
+    }
+
+    /**
+     * The reasons a command is rejected as invalid.
+     */
+    public enum Reason {
+        DATE, PAST_DATE, FAR_DATE, TIMESLOT, LOCATION, CONTACT, DURATION,
+        FILTER, COMMAND
+    }
+
+    private static final Command[] COMMANDS = Command.values();
+    private static final Reason[] REASONS = Reason.values();
+    private static final OrganizerMetrics INSTANCE = new OrganizerMetrics();
+
+    private final LongAdder added;
+    private final LongAdder duplicates;
+    private final LongAdder removed;
+    private final LongAdder notFound;
+    private final LongAdder[] invalid; //by Reason ordinal
+    private final LatencyHistogram[] latencies; //by Command ordinal
+    private volatile CalendarStorage calendar;
+
+    /**
+     * Instantiates empty metrics.
+     */
+    private OrganizerMetrics() {
+        added = new LongAdder();
+        duplicates = new LongAdder();
+        removed = new LongAdder();
+        notFound = new LongAdder();
+        invalid = new LongAdder[REASONS.length];
+        for (int i = 0; i < invalid.length; i++) {
+            invalid[i] = new LongAdder();
+        }
+        latencies = new LatencyHistogram[COMMANDS.length];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Getter method for the metrics of the process.
+     * @return The single instance.
+     */
+    public static OrganizerMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Attaches the calendar whose size is reported as the event count.
+     * @param calendar The calendar being served.
+     */
+    public void setCalendar(CalendarStorage calendar) {
+        this.calendar = calendar;
+    }
+
+    /**
+     * Records the latency of one command.
+     * @param command The command.
+     * @param nanos How long it took, in nanoseconds.
+     */
+    public void recordLatency(Command command, long nanos) {
+        latencies[command.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records the results of adds.
+     * @param numAdded Number of events added.
+     * @param numDuplicates Number of adds rejected as duplicates.
+     */
+    public void recordAdds(int numAdded, int numDuplicates) {
+        added.add(numAdded);
+        duplicates.add(numDuplicates);
+    }
+
+    /**
+     * Records the result of a cancel.
+     * @param isRemoved True if the event was removed, false if it was not
+     *                  on the calendar.
+     */
+    public void recordCancel(boolean isRemoved) {
+        (isRemoved ? removed : notFound).increment();
+    }
+
+    /**
+     * Records a command rejected for invalid input.
+     * @param reason What was invalid.
+     */
+    public void recordInvalid(Reason reason) {
+        invalid[reason.ordinal()].increment();
+    }
+
+    /**
+     * Getter method for the latency histogram of a command.
+     * @param command The command.
+     * @return Its histogram.
+     */
+    public LatencyHistogram getLatency(Command command) {
+        return latencies[command.ordinal()];
+    }
+
+    /**
+     * Renders every counter and, for each command run so far, its count
+     * and latency percentiles, as the listing of the STATS command.
+     * @param builder The builder to append to.
+     * @return The same builder, for chaining.
+     */
+    public StringBuilder appendTo(StringBuilder builder) {
+        String newLine = System.lineSeparator();
+        builder.append("* Event Organizer statistics *").append(newLine)
+                .append("Events on the calendar: ").append(getEventCount())
+                .append(newLine)
+                .append("Added: ").append(added.sum())
+                .append(", duplicates: ").append(duplicates.sum())
+                .append(", removed: ").append(removed.sum())
+                .append(", not found: ").append(notFound.sum())
+                .append(newLine).append("Invalid:");
+        for (Reason reason : REASONS) {
+            builder.append(' ').append(reason.name().toLowerCase())
+                    .append(' ').append(invalid[reason.ordinal()].sum());
+        }
+        builder.append(newLine).append(String.format(
+                "%-20s %10s %10s %10s %10s%n", "Command", "Count",
+                "p50 us", "p99 us", "max us"));
+        for (Command command : COMMANDS) {
+            LatencyHistogram histogram = latencies[command.ordinal()];
+            long count = histogram.getCount();
+            if (count > 0) {
+                builder.append(String.format(
+                        "%-20s %10d %10.1f %10.1f %10.1f%n", command, count,
+                        histogram.getPercentile(MEDIAN) / NANOS_PER_MICRO,
+                        histogram.getPercentile(P99) / NANOS_PER_MICRO,
+                        histogram.getMax() / NANOS_PER_MICRO));
+            }
+        }
+        return builder.append("* end of statistics *").append(newLine);
+    }
+
+    /**
+     * Getter method for the number of events on the calendar.
+     * @return The number of events, or 0 if no calendar is attached.
+     */
+    @Override
+    public int getEventCount() {
+        CalendarStorage current = calendar;
+        return current == null ? 0 : current.size();
+    }
+
+    /**
+     * Getter method for the number of events added.
+     * @return The number of successful adds.
+     */
+    @Override
+    public long getAdded() {
+        return added.sum();
+    }
+
+    /**
+     * Getter method for the number of adds rejected as duplicates.
+     * @return The number of adds of an event already on the calendar.
+     */
+    @Override
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    /**
+     * Getter method for the number of events removed.
+     * @return The number of successful cancels.
+     */
+    @Override
+    public long getRemoved() {
+        return removed.sum();
+    }
+
+    /**
+     * Getter method for the number of cancels of missing events.
+     * @return The number of cancels of events not on the calendar.
+     */
+    @Override
+    public long getNotFound() {
+        return notFound.sum();
+    }
+
+    /**
+     * Getter method for the number of commands rejected for invalid input,
+     * by reason.
+     * @return The count of every Reason, by name.
+     */
+    @Override
+    public Map<String, Long> getInvalidByReason() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Reason reason : REASONS) {
+            counts.put(reason.name(), invalid[reason.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Getter method for the number of commands run, by command.
+     * @return The count of every Command, by name.
+     */
+    @Override
+    public Map<String, Long> getCommandCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Command command : COMMANDS) {
+            counts.put(command.name(),
+                    latencies[command.ordinal()].getCount());
+        }
+        return counts;
+    }
+
+    /**
+     * Getter method for the median latency of every command.
+     * @return The median in microseconds, by command name.
+     */
+    @Override
+    public Map<String, Double> getLatencyP50Micros() {
+        return byCommand(histogram -> histogram.getPercentile(MEDIAN));
+    }
+
+    /**
+     * Getter method for the 99th percentile latency of every command.
+     * @return The 99th percentile in microseconds, by command name.
+     */
+    @Override
+    public Map<String, Double> getLatencyP99Micros() {
+        return byCommand(histogram -> histogram.getPercentile(P99));
+    }
+
+    /**
+     * Getter method for the largest latency of every command.
+     * @return The maximum in microseconds, by command name.
+     */
+    @Override
+    public Map<String, Double> getLatencyMaxMicros() {
+        return byCommand(LatencyHistogram::getMax);
+    }
+
+    /**
+     * Clears every counter and histogram.
+     */
+    @Override
+    public void reset() {
+        added.reset();
+        duplicates.reset();
+        removed.reset();
+        notFound.reset();
+        for (LongAdder counter : invalid) {
+            counter.reset();
+        }
+        for (LatencyHistogram histogram : latencies) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Utility method to read one statistic of every command's histogram.
+     * @param statistic Reads the statistic in nanoseconds.
+     * @return The statistic in microseconds, by command name.
+     */
+    private Map<String, Double> byCommand(
+            ToDoubleFunction<LatencyHistogram> statistic) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Command command : COMMANDS) {
+            values.put(command.name(), statistic.applyAsDouble(
+                    latencies[command.ordinal()]) / NANOS_PER_MICRO);
+        }
+        return values;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server as OBJECT_NAME,
+     * unless they already are. Starting JMX takes a while, so only
+     * long-running organizers such as a server register. Metrics still
+     * work without JMX if registration fails.
+     */
+    public synchronized void registerMBean() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(
+                    name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(
+                        this, name);
+            }
+        } catch (JMException e) {
+            //JMX is unavailable
+        }
+    }
+}
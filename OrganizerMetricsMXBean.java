@@ -0,0 +1,77 @@
+package scheduler;
+
+import java.util.Map;
+
+/**
+ * Management interface of OrganizerMetrics, as seen through JMX under the
+ * name OrganizerMetrics.OBJECT_NAME.
+ * @author Dharmik Patel and Krish Patel
+ */
+public interface OrganizerMetricsMXBean {
+
+    /**
+     * Getter method for the number of events on the calendar.
+     * @return The number of events, or 0 if no calendar is attached.
+     */
+    int getEventCount();
+
+    /**
+     * Getter method for the number of events added.
+     * @return The number of successful adds.
+     */
+    long getAdded();
+
+    /**
+     * Getter method for the number of adds rejected as duplicates.
+     * @return The number of adds of an event already on the calendar.
+     */
+    long getDuplicates();
+
+    /**
+     * Getter method for the number of events removed.
+     * @return The number of successful cancels.
+     */
+    long getRemoved();
+
+    /**
+     * Getter method for the number of cancels of missing events.
+     * @return The number of cancels of events not on the calendar.
+     */
+    long getNotFound();
+
+    /**
+     * Getter method for the number of commands rejected for invalid input,
+     * by reason.
+     * @return The count of every OrganizerMetrics.Reason, by name.
+     */
+    Map<String, Long> getInvalidByReason();
+
+    /**
+     * Getter method for the number of commands run, by command.
+     * @return The count of every OrganizerMetrics.Command, by name.
+     */
+    Map<String, Long> getCommandCounts();
+
+    /**
+     * Getter method for the median latency of every command.
+     * @return The median in microseconds, by command name.
+     */
+    Map<String, Double> getLatencyP50Micros();
+
+    /**
+     * Getter method for the 99th percentile latency of every command.
+     * @return The 99th percentile in microseconds, by command name.
+     */
+    Map<String, Double> getLatencyP99Micros();
+
+    /**
+     * Getter method for the largest latency of every command.
+     * @return The maximum in microseconds, by command name.
+     */
+    Map<String, Double> getLatencyMaxMicros();
+
+    /**
+     * Clears every counter and histogram.
+     */
+    void reset();
+}
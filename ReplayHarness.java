@@ -0,0 +1,276 @@
+package scheduler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Replays a command file against an in-memory calendar and reports the
+ * throughput and the latency percentiles of every kind of command.
+ * <p>
+ * With one thread the commands run in order against an EventCalender.
+ * With more, the lines are dealt out round-robin to that many threads,
+ * each running its own EventOrganizer against one shared
+ * ConcurrentEventCalender, like the sessions of EventServer. Naming a
+ * CalendarBackend replays against that engine instead, so engines can be
+ * compared on the same command stream. Every command is timed on its own,
+ * without pipelining, and its response is discarded.
+ * <p>
+ * Usage:
+ * {@code java scheduler.ReplayHarness commands.txt [threads] [backend]};
+ * a command file can be made with WorkloadGenerator.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class ReplayHarness {
+    private static final String[] KINDS = {"A", "R", "P", "other"};
+    private static final int KIND_ADD = 0;
+    private static final int KIND_CANCEL = 1;
+    private static final int KIND_PRINT = 2;
+    private static final int KIND_OTHER = 3;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final double NANOS_PER_MICRO = 1e3;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final long MAX_THREADS = 1024;
+    private static final long INVALID_NUMBER = -1;
+    private static final int MAX_ARGS = 3;
+    private static final PrintStream DISCARD = new PrintStream(
+            OutputStream.nullOutputStream());
+
+    /**
+     * Replays the command file and prints the report. A thread count that
+     * is not a number from 1 to MAX_THREADS(1024), or an argument past the
+     * backend, stops the program.
+     * @param args The command file, and optionally the number of threads
+     *             and the name of a backend.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: ReplayHarness commands.txt " +
+                    "[threads] [backend]");
+            return;
+        }
+        if (args.length > MAX_ARGS) {
+            System.out.println(args[MAX_ARGS] + " is an invalid option!");
+            return;
+        }
+        int numThreads = args.length > 1 ?
+                (int) parseNumber(args[1], MAX_THREADS) : 1;
+        if (numThreads < 1) {
+            System.out.println(args[1] + " is an invalid option!");
+            return;
+        }
+        CalendarBackend backend = numThreads == 1 ? CalendarBackend.ARRAY :
+                CalendarBackend.CONCURRENT;
+        if (args.length > 2) {
+            backend = CalendarBackend.fromName(args[2]);
+            if (backend == null) {
+                System.out.println(args[2] + " is an invalid backend!");
+                return;
+            } else if (numThreads > 1 && !(backend.isThreadSafe())) {
+                System.out.println("The " + backend +
+                        " backend cannot be shared by threads!");
+                return;
+            }
+        }
+        byte[][] workloads;
+        try {
+            workloads = deal(Files.readAllBytes(Paths.get(args[0])),
+                    numThreads);
+        } catch (IOException e) {
+            System.out.println("Could not read " + args[0] + ": " +
+                    e.getMessage());
+            return;
+        }
+        CalendarStorage calendar = backend.newCalendar();
+        long[][][] latencies = new long[numThreads][][];
+        Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            int worker = i;
+            threads[i] = new Thread(() -> latencies[worker] =
+                    replay(calendar, workloads[worker]));
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        report(latencies, elapsed, calendar.size());
+    }
+
+    /**
+     * Utility method to run every line of a workload through one organizer,
+     * timing each command.
+     * @param calendar The calendar to run the commands against.
+     * @param workload The command lines of this thread.
+     * @return The latencies in nanoseconds, one array per kind of command.
+     */
+    private static long[][] replay(CalendarStorage calendar,
+                                   byte[] workload) {
+        EventOrganizer organizer = new EventOrganizer(calendar, DISCARD);
+        CommandTokenizer commands = new CommandTokenizer();
+        ByteBuffer lines = ByteBuffer.wrap(workload);
+        long[][] latencies = new long[KINDS.length][];
+        int[] counts = new int[KINDS.length];
+        for (int i = 0; i < KINDS.length; i++) {
+            latencies[i] = new long[16];
+        }
+        while (commands.nextLine(lines, true)) {
+            if (commands.lineEquals("Q")) {
+                continue;
+            }
+            long start = System.nanoTime();
+            organizer.runCommand(commands);
+            long latency = System.nanoTime() - start;
+            int kind = kindOf(commands);
+            if (counts[kind] == latencies[kind].length) {
+                latencies[kind] = Arrays.copyOf(latencies[kind],
+                        counts[kind] * 2);
+            }
+            latencies[kind][counts[kind]++] = latency;
+        }
+        for (int i = 0; i < KINDS.length; i++) {
+            latencies[i] = Arrays.copyOf(latencies[i], counts[i]);
+        }
+        return latencies;
+    }
+
+    /**
+     * Utility method to print the throughput and, for every kind of
+     * command, the count and latency percentiles in microseconds.
+     * @param latencies The latencies of every thread, by kind of command.
+     * @param elapsed Wall time of the whole replay in nanoseconds.
+     * @param numEvents Events left in the calendar at the end.
+     */
+    private static void report(long[][][] latencies, long elapsed,
+                               int numEvents) {
+        int total = 0;
+        StringBuilder header = new StringBuilder(String.format("%-6s %9s",
+                "Kind", "Count"));
+        for (double percentile : PERCENTILES) {
+            header.append(String.format(" %9s", "p" + formatPercentile(
+                    percentile)));
+        }
+        System.out.println(header.append(String.format(" %9s", "max")));
+        for (int kind = 0; kind < KINDS.length; kind++) {
+            ArrayList<long[]> parts = new ArrayList<>();
+            int count = 0;
+            for (long[][] threadLatencies : latencies) {
+                parts.add(threadLatencies[kind]);
+                count += threadLatencies[kind].length;
+            }
+            if (count == 0) {
+                continue;
+            }
+            long[] merged = new long[count];
+            int position = 0;
+            for (long[] part : parts) {
+                System.arraycopy(part, 0, merged, position, part.length);
+                position += part.length;
+            }
+            Arrays.sort(merged);
+            total += count;
+            StringBuilder row = new StringBuilder(String.format("%-6s %9d",
+                    KINDS[kind], count));
+            for (double percentile : PERCENTILES) {
+                int index = (int) Math.ceil(percentile / 100 * count) - 1;
+                row.append(String.format(" %9.1f",
+                        merged[Math.max(index, 0)] / NANOS_PER_MICRO));
+            }
+            row.append(String.format(" %9.1f",
+                    merged[count - 1] / NANOS_PER_MICRO));
+            System.out.println(row);
+        }
+        System.out.printf("%d commands in %.3f s on %d threads: %.0f " +
+                        "commands/s, %d events booked (latencies in us).%n",
+                total, elapsed / NANOS_PER_SECOND, latencies.length,
+                total / (elapsed / NANOS_PER_SECOND), numEvents);
+    }
+
+    /**
+     * Utility method to parse the number given to an option.
+     * @param value The value of the option.
+     * @param max The largest number the option allows.
+     * @return The number, or INVALID_NUMBER(-1) if the value is not a
+     *         number from 0 to max.
+     */
+    private static long parseNumber(String value, long max) {
+        try {
+            long number = Long.parseLong(value);
+            return number >= 0 && number <= max ? number : INVALID_NUMBER;
+        } catch (NumberFormatException e) {
+            return INVALID_NUMBER;
+        }
+    }
+
+    /**
+     * Utility method to deal the lines of a command file out round-robin.
+     * @param file The whole command file.
+     * @param numThreads Number of workloads to make.
+     * @return The lines of each workload.
+     */
+    private static byte[][] deal(byte[] file, int numThreads) {
+        ByteArrayOutputStream[] parts = new ByteArrayOutputStream[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            parts[i] = new ByteArrayOutputStream(file.length / numThreads);
+        }
+        int lineStart = 0;
+        int lineNumber = 0;
+        for (int i = 0; i < file.length; i++) {
+            if (file[i] == '\n') {
+                parts[lineNumber++ % numThreads].write(file, lineStart,
+                        i + 1 - lineStart);
+                lineStart = i + 1;
+            }
+        }
+        parts[lineNumber % numThreads].write(file, lineStart,
+                file.length - lineStart);
+        byte[][] workloads = new byte[numThreads][];
+        for (int i = 0; i < numThreads; i++) {
+            workloads[i] = parts[i].toByteArray();
+        }
+        return workloads;
+    }
+
+    /**
+     * Utility method to tell what kind of command the current line is.
+     * @param commands The tokenizer holding the line.
+     * @return KIND_ADD, KIND_CANCEL, KIND_PRINT or KIND_OTHER.
+     */
+    private static int kindOf(CommandTokenizer commands) {
+        if (commands.tokenEquals(0, "A")) {
+            return KIND_ADD;
+        } else if (commands.tokenEquals(0, "R")) {
+            return KIND_CANCEL;
+        } else if (commands.tokenEquals(0, "P") ||
+                commands.tokenEquals(0, "PE") ||
+                commands.tokenEquals(0, "PC") ||
+                commands.tokenEquals(0, "PD")) {
+            return KIND_PRINT;
+        }
+        return KIND_OTHER;
+    }
+
+    /**
+     * Utility method to format a percentile without a needless ".0".
+     * @param percentile The percentile.
+     * @return The percentile as text, such as "50" or "99.9".
+     */
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ?
+                String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+}
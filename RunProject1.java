@@ -1,16 +1,114 @@
-package scheduler;
-
-/**
- * The Driver class to run the software
- * @author Dharmik Patel and Krish Patel
- */
-
-public class RunProject1 {
-    /**
-     * this main method makes a new instance of Event Organizer and runs it.
-     * @param args command line arguments
-     */
-    public static void main(String[] args) {
-        new EventOrganizer().run();
-    }
-}
+package scheduler;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The Driver class to run the software
+ * @author Dharmik Patel and Krish Patel
+ */
+
+public class RunProject1 {
+    private static final String OPTION_FILE = "--file";
+    private static final String OPTION_SNAPSHOT = "--snapshot";
+    private static final String OPTION_LOG = "--log";
+    private static final String OPTION_FSYNC_MILLIS = "--fsync-ms";
+    private static final String OPTION_SERVER = "--server";
+    private static final String OPTION_BACKEND = "--backend";
+    private static final long DEFAULT_FSYNC_MILLIS = 100;
+    private static final long MAX_PORT = 65535;
+    private static final long INVALID_NUMBER = -1;
+
+    /**
+     * this main method makes a new instance of Event Organizer and runs it.
+     * With "--file commands.txt" the commands are replayed from the file
+     * in batch mode instead of being read from the console.
+     * With "--snapshot calendar.bin" the calendar is restored from that
+     * file on start and saved back to it on quit.
+     * With "--log calendar.log" as well, every change is also appended to
+     * that write-ahead log, which is forced to disk at least every
+     * "--fsync-ms" milliseconds (100 by default).
+     * With "--server 4000" the commands are served to many clients at
+     * once over loopback TCP on that port instead.
+     * With "--backend bitset" the calendar is stored by that engine: array
+     * (the default), concurrent (the default of a server) or bitset.
+     * Every option needs a value, and an unknown option, a missing value
+     * or a number that does not parse or is out of range stops the
+     * program.
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        Path commandFile = null;
+        Path snapshotFile = null;
+        Path logFile = null;
+        long fsyncMillis = DEFAULT_FSYNC_MILLIS;
+        int serverPort = -1;
+        CalendarBackend backend = null;
+        if (args.length % 2 != 0) {
+            System.out.println(args[args.length - 1] +
+                    " is an invalid option!");
+            return;
+        }
+        for (int i = 0; i < args.length; i += 2) {
+            if (args[i].equals(OPTION_FILE)) {
+                commandFile = Paths.get(args[i + 1]);
+            } else if (args[i].equals(OPTION_SNAPSHOT)) {
+                snapshotFile = Paths.get(args[i + 1]);
+            } else if (args[i].equals(OPTION_LOG)) {
+                logFile = Paths.get(args[i + 1]);
+            } else if (args[i].equals(OPTION_FSYNC_MILLIS)) {
+                fsyncMillis = parseNumber(args[i + 1], Long.MAX_VALUE);
+                if (fsyncMillis == INVALID_NUMBER) {
+                    System.out.println(args[i + 1] + " is an invalid option!");
+                    return;
+                }
+            } else if (args[i].equals(OPTION_SERVER)) {
+                serverPort = (int) parseNumber(args[i + 1], MAX_PORT);
+                if (serverPort == INVALID_NUMBER) {
+                    System.out.println(args[i + 1] + " is an invalid option!");
+                    return;
+                }
+            } else if (args[i].equals(OPTION_BACKEND)) {
+                backend = CalendarBackend.fromName(args[i + 1]);
+                if (backend == null) {
+                    System.out.println(args[i + 1] +
+                            " is an invalid backend!");
+                    return;
+                }
+            } else {
+                System.out.println(args[i] + " is an invalid option!");
+                return;
+            }
+        }
+        if (logFile != null && snapshotFile == null) {
+            System.out.println(OPTION_LOG + " needs " + OPTION_SNAPSHOT +
+                    " to compact into!");
+            return;
+        }
+        EventOrganizer organizer = new EventOrganizer(snapshotFile, logFile,
+                fsyncMillis, backend);
+        if (serverPort >= 0) {
+            organizer.runServer(serverPort);
+        } else if (commandFile != null) {
+            organizer.runBatch(commandFile);
+        } else {
+            organizer.run();
+        }
+    }
+
+    /**
+     * Utility method to parse the number given to an option.
+     * @param value The value of the option.
+     * @param max The largest number the option allows.
+     * @return The number, or INVALID_NUMBER(-1) if the value is not a
+     *         number from 0 to max.
+     */
+    private static long parseNumber(String value, long max) {
+        try {
+            long number = Long.parseLong(value);
+            return number >= 0 && number <= max ? number : INVALID_NUMBER;
+        } catch (NumberFormatException e) {
+            return INVALID_NUMBER;
+        }
+    }
+}
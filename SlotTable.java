@@ -0,0 +1,194 @@
+package scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table from packed primitive long keys to int values.
+ * Keys and values are stored in parallel arrays, so a lookup never boxes
+ * and never allocates. Collisions are resolved by linear probing, and
+ * removals use backward shifting so no tombstones are left behind.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class SlotTable {
+    public static final int NOT_FOUND = -1;
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int HASH_SHIFT = 32;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Instantiates an empty SlotTable with an initial capacity of
+     * INITIAL_CAPACITY(16) buckets.
+     */
+    public SlotTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Instantiates an empty SlotTable that can hold {@code expectedKeys}
+     * keys without rehashing.
+     * @param expectedKeys Number of keys the table is expected to hold.
+     */
+    public SlotTable(int expectedKeys) {
+        allocate(capacityFor(expectedKeys));
+    }
+
+    /**
+     * Makes sure the table can hold {@code expectedKeys} keys without
+     * rehashing again.
+     * @param expectedKeys Number of keys the table is expected to hold.
+     */
+    public void ensureCapacity(int expectedKeys) {
+        int capacity = capacityFor(expectedKeys);
+        if (capacity > keys.length) {
+            rehash(capacity);
+        }
+    }
+
+    /**
+     * Getter method for the number of keys in the table.
+     * @return The number of keys in the table.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up the value stored for the given key.
+     * @param key The packed key to look up. Must not be Long.MIN_VALUE.
+     * @return The value stored for the key, or NOT_FOUND(-1).
+     */
+    public int get(long key) {
+        int bucket = bucketOf(key);
+        while (keys[bucket] != EMPTY) {
+            if (keys[bucket] == key) {
+                return values[bucket];
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Stores a value for the given key, replacing any previous value.
+     * Doubles the table once it becomes half full.
+     * @param key The packed key. Must not be Long.MIN_VALUE.
+     * @param value The value to store for the key.
+     */
+    public void put(long key, int value) {
+        int bucket = bucketOf(key);
+        while (keys[bucket] != EMPTY) {
+            if (keys[bucket] == key) {
+                values[bucket] = value;
+                return;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        keys[bucket] = key;
+        values[bucket] = value;
+        size++;
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Removes the given key, shifting back any later entries of the same
+     * probe run so that lookups never need tombstones.
+     * @param key The packed key to remove.
+     * @return The value that was stored for the key, or NOT_FOUND(-1).
+     */
+    public int remove(long key) {
+        int bucket = bucketOf(key);
+        while (keys[bucket] != key) {
+            if (keys[bucket] == EMPTY) {
+                return NOT_FOUND;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        int removed = values[bucket];
+        int hole = bucket;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = bucketOf(keys[next]);
+            //move the entry back if the hole lies on its probe path
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Removes every key from the table, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Utility method to spread a key over the buckets of the table.
+     * @param key The key to hash.
+     * @return The home bucket of the key.
+     */
+    private int bucketOf(long key) {
+        long hash = key * HASH_MULTIPLIER;
+        return (int) (hash ^ (hash >>> HASH_SHIFT)) & mask;
+    }
+
+    /**
+     * Utility method to find the smallest power of two number of buckets
+     * that keeps the table at most half full.
+     * @param expectedKeys Number of keys the table is expected to hold.
+     * @return The number of buckets to allocate.
+     */
+    private static int capacityFor(int expectedKeys) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < expectedKeys * 2L) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    /**
+     * Utility method to allocate empty key and value arrays.
+     * @param capacity Number of buckets, must be a power of two.
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Utility method to move every entry into a table of a new capacity.
+     * @param capacity Number of buckets, must be a power of two.
+     */
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int bucket = bucketOf(oldKeys[i]);
+                while (keys[bucket] != EMPTY) {
+                    bucket = (bucket + 1) & mask;
+                }
+                keys[bucket] = oldKeys[i];
+                values[bucket] = oldValues[i];
+            }
+        }
+    }
+}
@@ -1,57 +1,82 @@
-package scheduler;
-/**
- * Enum Class: Represents all possible timeslots for an event.
- * The order of declaration (in time order) determines the functionality of
- * the Timeslot.compareTo method.
- * @author Dharmik Patel and Krish Patel
- */
-public enum Timeslot {
-
-
-    MORNING(10, 30),
-    AFTERNOON(2, 0),
-    EVENING(6, 30);
-    public final static String LOCALE_AM = "AM";
-    public final static String LOCALE_PM = "PM";
-    private final int hour;
-    private final int minute;
-
-
-    /**
-     * This constructor is used by JVM, makes all the Timeslot enums.
-     * @param hour start hour of timeslot
-     * @param minute start minute of timeslot
-     */
-    Timeslot(int hour, int minute) {
-        this.hour = hour;
-        this.minute = minute;
-    }
-
-    /**
-     * Getter method to get the field: hour.
-     * @return start hour of the timeslot
-     */
-    public int getHour() {
-        return hour;
-    }
-
-    /**
-     * Getter method to get the field: minute.
-     * @return start minute of the timeslot
-     */
-    public int getMinute() {
-        return minute;
-    }
-
-    /**
-     * Overrides toString method to return a timeslot in the
-     * format: [Start: HOUR:MIN LOCALE_AM|LOCALE_PM]
-     * @return the timeslot in the specified format
-     */
-    @Override
-    public String toString() {
-        String locale = this.equals(Timeslot.MORNING) ? LOCALE_AM : LOCALE_PM;
-        return String.format("[Start: %d:%02d %s]", hour, minute, locale);
-    }
-
-}
+package scheduler;
+/**
+ * Enum Class: Represents all possible timeslots for an event.
+ * The order of declaration (in time order) determines the functionality of
+ * the Timeslot.compareTo method.
+ * @author Dharmik Patel and Krish Patel
+ */
+public enum Timeslot {
+
+
+    MORNING(10, 30),
+    AFTERNOON(2, 0),
+    EVENING(6, 30);
+    public final static String LOCALE_AM = "AM";
+    public final static String LOCALE_PM = "PM";
+    private final static int MINUTES_PER_HOUR = 60;
+    private final static int NOON_HOUR = 12;
+    private final int hour;
+    private final int minute;
+
+
+    /**
+     * This constructor is used by JVM, makes all the Timeslot enums.
+     * @param hour start hour of timeslot
+     * @param minute start minute of timeslot
+     */
+    Timeslot(int hour, int minute) {
+        this.hour = hour;
+        this.minute = minute;
+    }
+
+    /**
+     * Getter method to get the field: hour.
+     * @return start hour of the timeslot
+     */
+    public int getHour() {
+        return hour;
+    }
+
+    /**
+     * Getter method to get the field: minute.
+     * @return start minute of the timeslot
+     */
+    public int getMinute() {
+        return minute;
+    }
+
+    /**
+     * Getter method for the start of the timeslot as minutes since
+     * midnight, so start times can be compared and added to.
+     * @return start of the timeslot, from 0 to 1439
+     */
+    public int getStartMinute() {
+        int hourOfDay = this.equals(Timeslot.MORNING) ? hour :
+                hour + NOON_HOUR;
+        return hourOfDay * MINUTES_PER_HOUR + minute;
+    }
+
+    /**
+     * Overrides toString method to return a timeslot in the
+     * format: [Start: HOUR:MIN LOCALE_AM|LOCALE_PM]
+     * @return the timeslot in the specified format
+     */
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the timeslot to {@code builder} in the same format as
+     * toString, without going through String.format.
+     * @param builder The builder to append to.
+     * @return The same builder, for chaining.
+     */
+    public StringBuilder appendTo(StringBuilder builder) {
+        String locale = this.equals(Timeslot.MORNING) ? LOCALE_AM : LOCALE_PM;
+        builder.append("[Start: ").append(hour).append(':');
+        return Date.appendTwoDigits(builder, minute).append(' ')
+                .append(locale).append(']');
+    }
+
+}
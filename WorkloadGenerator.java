@@ -0,0 +1,346 @@
+package scheduler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Generates synthetic command streams for EventOrganizer that look like
+ * real booking traffic, for load tests and for ReplayHarness.
+ * <p>
+ * The mix of adds, cancels and listings, the share of adds aimed at an
+ * already booked slot, the share of invalid lines and how strongly dates
+ * cluster near today are all configurable. Valid dates always fall inside
+ * the window Date.isMoreThanPresentDate and
+ * Date.isLessThanDateSixMonthsInFuture accept. Cancels target booked
+ * events, so they mostly succeed, unless nothing is booked yet. The
+ * window only has about 3300 slots, so a long stream with more adds than
+ * cancels fills it up, after which most adds are duplicates. The stream
+ * ends with "Q", and the same seed always gives the same stream.
+ * @author Dharmik Patel and Krish Patel
+ */
+public class WorkloadGenerator {
+    private static final String OPTION_COUNT = "--count";
+    private static final String OPTION_SEED = "--seed";
+    private static final String OPTION_ADDS = "--adds";
+    private static final String OPTION_CANCELS = "--cancels";
+    private static final String OPTION_PRINTS = "--prints";
+    private static final String OPTION_COLLISIONS = "--collisions";
+    private static final String OPTION_INVALID = "--invalid";
+    private static final String OPTION_SKEW = "--skew";
+    private static final String OPTION_OUT = "--out";
+    private static final String[] PRINT_COMMANDS = {"P", "PE", "PC", "PD"};
+    private static final int[] DURATIONS = {30, 60, 90, 120};
+    private static final int NUM_INVALID_KINDS = 7;
+    private static final String EMAIL_DOMAIN = "@rutgers.edu";
+    private static final int NUM_USERS = 500;
+    private static final int MAX_FREE_SLOT_ATTEMPTS = 16;
+    private static final double PERCENT = 100.0;
+    private static final Timeslot[] TIMESLOTS = Timeslot.values();
+    private static final Location[] LOCATIONS = Location.values();
+    private static final Department[] DEPARTMENTS = Department.values();
+
+    private int count = 100_000;
+    private long seed = 1;
+    private double addPercent = 70;
+    private double cancelPercent = 25;
+    private double printPercent = 5;
+    private double collisionPercent = 10;
+    private double invalidPercent = 5;
+    private double skew = 1; //1 spreads dates evenly, higher clusters
+    //them near today
+
+    private final LocalDate firstDay; //first date the organizer accepts
+    private final int numDays; //number of dates the organizer accepts
+    private Random random;
+    private ArrayList<String> booked; //"date timeslot location" of the
+    //events the stream has booked and not cancelled yet
+    private HashSet<String> bookedSet;
+
+    /**
+     * Instantiates a generator with the default mix: 70% adds, 25%
+     * cancels, 5% listings, 10% colliding adds and 5% invalid lines.
+     */
+    public WorkloadGenerator() {
+        LocalDate today = toLocalDate(Date.PRESENT_DATE);
+        firstDay = today.plusDays(1);
+        numDays = (int) ChronoUnit.DAYS.between(today,
+                toLocalDate(Date.SIX_MONTHS_IN_FUTURE_DATE));
+    }
+
+    /**
+     * Generates a command stream as configured by the options, to standard
+     * output or to the "--out" file. Every option takes one value:
+     * "--count" lines (100000), "--seed" (1), the percentages "--adds"
+     * (70), "--cancels" (25) and "--prints" (5) which are scaled to add up
+     * to 100, "--collisions" (10) percent of adds aimed at a booked slot,
+     * "--invalid" (5) percent of invalid lines, and "--skew" (1), where
+     * values above 1 cluster dates near today. An unknown option, a
+     * missing value or a number that does not parse or is out of range
+     * stops the program.
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        WorkloadGenerator generator = new WorkloadGenerator();
+        String outFile = null;
+        if (args.length % 2 != 0) {
+            System.out.println(args[args.length - 1] +
+                    " is an invalid option!");
+            return;
+        }
+        for (int i = 0; i < args.length; i += 2) {
+            String value = args[i + 1];
+            try {
+                if (args[i].equals(OPTION_COUNT)) {
+                    generator.count = parseCount(value);
+                } else if (args[i].equals(OPTION_SEED)) {
+                    generator.seed = Long.parseLong(value);
+                } else if (args[i].equals(OPTION_ADDS)) {
+                    generator.addPercent = parseNumber(value, 0,
+                            Double.MAX_VALUE);
+                } else if (args[i].equals(OPTION_CANCELS)) {
+                    generator.cancelPercent = parseNumber(value, 0,
+                            Double.MAX_VALUE);
+                } else if (args[i].equals(OPTION_PRINTS)) {
+                    generator.printPercent = parseNumber(value, 0,
+                            Double.MAX_VALUE);
+                } else if (args[i].equals(OPTION_COLLISIONS)) {
+                    generator.collisionPercent = parseNumber(value, 0,
+                            PERCENT);
+                } else if (args[i].equals(OPTION_INVALID)) {
+                    generator.invalidPercent = parseNumber(value, 0,
+                            PERCENT);
+                } else if (args[i].equals(OPTION_SKEW)) {
+                    generator.skew = parseNumber(value, Double.MIN_VALUE,
+                            Double.MAX_VALUE);
+                } else if (args[i].equals(OPTION_OUT)) {
+                    outFile = value;
+                } else {
+                    System.out.println(args[i] + " is an invalid option!");
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                System.out.println(value + " is an invalid option!");
+                return;
+            }
+        }
+        try (Writer out = outFile == null ?
+                new BufferedWriter(new OutputStreamWriter(System.out,
+                        StandardCharsets.ISO_8859_1)) :
+                Files.newBufferedWriter(Paths.get(outFile),
+                        StandardCharsets.ISO_8859_1)) {
+            generator.generate(out);
+        } catch (IOException e) {
+            System.out.println("Could not write the commands: " +
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Utility method to parse the line count given to "--count".
+     * @param value The value of the option.
+     * @return The count.
+     * @throws NumberFormatException If the value is not a whole number of
+     *                               at least 0.
+     */
+    private static int parseCount(String value) {
+        int number = Integer.parseInt(value);
+        if (number < 0) {
+            throw new NumberFormatException(value);
+        }
+        return number;
+    }
+
+    /**
+     * Utility method to parse the number given to an option.
+     * @param value The value of the option.
+     * @param min The smallest number the option allows.
+     * @param max The largest number the option allows.
+     * @return The number.
+     * @throws NumberFormatException If the value is not a number from min
+     *                               to max.
+     */
+    private static double parseNumber(String value, double min,
+                                      double max) {
+        double number = Double.parseDouble(value);
+        if (!(number >= min && number <= max)) {
+            throw new NumberFormatException(value);
+        }
+        return number;
+    }
+
+    /**
+     * Writes the command stream, one command per line, ending with "Q".
+     * @param out Where to write the commands.
+     * @throws IOException If the commands cannot be written.
+     */
+    public void generate(Writer out) throws IOException {
+        random = new Random(seed);
+        booked = new ArrayList<>();
+        bookedSet = new HashSet<>();
+        double mixTotal = addPercent + cancelPercent + printPercent;
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            line.setLength(0);
+            double kind = random.nextDouble() * mixTotal;
+            if (random.nextDouble() * PERCENT < invalidPercent) {
+                appendInvalid(line);
+            } else if (kind < addPercent) {
+                appendAdd(line);
+            } else if (kind < addPercent + cancelPercent) {
+                appendCancel(line);
+            } else {
+                line.append(PRINT_COMMANDS[random.nextInt(
+                        PRINT_COMMANDS.length)]);
+            }
+            out.append(line).append('\n');
+        }
+        out.append("Q\n");
+    }
+
+    /**
+     * Utility method to write an add. With the collision percentage it
+     * aims at a slot that is already booked, so the add is a duplicate;
+     * otherwise it looks for a free slot, giving up after
+     * MAX_FREE_SLOT_ATTEMPTS(16) tries when the window is nearly full.
+     * @param line The line to write to.
+     */
+    private void appendAdd(StringBuilder line) {
+        String slot;
+        if (!booked.isEmpty() &&
+                random.nextDouble() * PERCENT < collisionPercent) {
+            slot = booked.get(random.nextInt(booked.size()));
+        } else {
+            slot = randomSlot();
+            for (int i = 1; i < MAX_FREE_SLOT_ATTEMPTS &&
+                    bookedSet.contains(slot); i++) {
+                slot = randomSlot();
+            }
+            if (bookedSet.add(slot)) {
+                booked.add(slot);
+            }
+        }
+        line.append("A ").append(slot).append(' ');
+        appendContact(line);
+        line.append(' ').append(DURATIONS[random.nextInt(DURATIONS.length)]);
+    }
+
+    /**
+     * Utility method to write a cancel of a booked event, or of a random
+     * slot if nothing is booked.
+     * @param line The line to write to.
+     */
+    private void appendCancel(StringBuilder line) {
+        String slot;
+        if (booked.isEmpty()) {
+            slot = randomSlot();
+        } else {
+            int index = random.nextInt(booked.size());
+            slot = booked.get(index);
+            booked.set(index, booked.get(booked.size() - 1));
+            booked.remove(booked.size() - 1);
+            bookedSet.remove(slot);
+        }
+        line.append("R ").append(slot);
+    }
+
+    /**
+     * Utility method to write an add that the organizer rejects, with one
+     * of the invalid inputs it checks for.
+     * @param line The line to write to.
+     */
+    private void appendInvalid(StringBuilder line) {
+        String date = randomDate();
+        String timeslot = TIMESLOTS[random.nextInt(TIMESLOTS.length)].name();
+        String location = LOCATIONS[random.nextInt(LOCATIONS.length)].name();
+        int duration = DURATIONS[random.nextInt(DURATIONS.length)];
+        switch (random.nextInt(NUM_INVALID_KINDS)) {
+            case 0:
+                date = "2/30/" + firstDay.getYear();
+                break;
+            case 1:
+                date = formatDate(firstDay.minusDays(1 +
+                        random.nextInt(numDays)));
+                break;
+            case 2:
+                date = formatDate(firstDay.plusDays(numDays +
+                        random.nextInt(numDays)));
+                break;
+            case 3:
+                timeslot = "noon";
+                break;
+            case 4:
+                location = "HLL999";
+                break;
+            case 5:
+                duration = random.nextBoolean() ? 15 : 150;
+                break;
+            default:
+                line.append("X ").append(date);
+                return;
+        }
+        line.append("A ").append(date).append(' ').append(timeslot)
+                .append(' ').append(location).append(' ');
+        appendContact(line);
+        line.append(' ').append(duration);
+    }
+
+    /**
+     * Utility method to write a department and email.
+     * @param line The line to write to.
+     */
+    private void appendContact(StringBuilder line) {
+        line.append(DEPARTMENTS[random.nextInt(DEPARTMENTS.length)].name())
+                .append(" user").append(random.nextInt(NUM_USERS))
+                .append(EMAIL_DOMAIN);
+    }
+
+    /**
+     * Utility method to pick a random valid date, timeslot and location.
+     * @return The slot as "date timeslot location".
+     */
+    private String randomSlot() {
+        return randomDate() + ' ' +
+                TIMESLOTS[random.nextInt(TIMESLOTS.length)].name() + ' ' +
+                LOCATIONS[random.nextInt(LOCATIONS.length)].name();
+    }
+
+    /**
+     * Utility method to pick a valid date. Raising a uniform number to the
+     * power of the skew clusters the dates near today.
+     * @return The date as MONTH/DAY/YEAR.
+     */
+    private String randomDate() {
+        int offset = (int) (Math.pow(random.nextDouble(), skew) * numDays);
+        return formatDate(firstDay.plusDays(offset));
+    }
+
+    /**
+     * Utility method to format a date the way the organizer reads it.
+     * @param date The date.
+     * @return The date as MONTH/DAY/YEAR.
+     */
+    private static String formatDate(LocalDate date) {
+        return date.getMonthValue() + "/" + date.getDayOfMonth() + "/" +
+                date.getYear();
+    }
+
+    /**
+     * Utility method to convert a Date to a LocalDate.
+     * @param date The date.
+     * @return The same day as a LocalDate.
+     */
+    private static LocalDate toLocalDate(Date date) {
+        return LocalDate.of(date.getYear(), date.getMonth().ordinal() + 1,
+                date.getDay());
+    }
+}
@@ -0,0 +1,156 @@
+package scheduler;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of add, remove, contains and the listings of every
+ * CalendarBackend, on calendars of 10 to 1,000,000 events.
+ * <p>
+ * The calendar is filled with the events of CalendarBenchmark.makeEvents,
+ * 18 a day from the first of January 2026, far past the six month window
+ * for the larger sizes, which the calendar itself does not enforce; the
+ * bitset backend is given a window that covers all of them. The adds and
+ * removes come in pairs, so the calendar keeps its size however long a
+ * benchmark runs. The events are made in a shuffled order, so the booked
+ * and the absent ones are spread over the same days.
+ * @author Dharmik Patel and Krish Patel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CalendarStorageBenchmark {
+    private static final int NUM_ABSENT = 1 << 10; //events never booked
+    private static final PrintStream DISCARD = new PrintStream(
+            OutputStream.nullOutputStream());
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"array", "concurrent", "bitset"})
+    private String backend;
+
+    private CalendarStorage calendar;
+    private Event[] booked; //the events in the calendar
+    private Event[] absent; //distinct events that are not in it
+    private int nextBooked;
+    private int nextAbsent;
+
+    /**
+     * Fills a calendar of the backend with {@code size} events.
+     */
+    @Setup
+    public void fillCalendar() {
+        Event[] events = CalendarBenchmark.makeEvents(size + NUM_ABSENT,
+                true);
+        booked = Arrays.copyOf(events, size);
+        absent = Arrays.copyOfRange(events, size, events.length);
+        calendar = backend.equals(CalendarBackend.BITSET.toString()) ?
+                new BitsetEventCalender(CalendarBenchmark.dayOf(0),
+                        CalendarBenchmark.dayOf(size + NUM_ABSENT - 1)) :
+                CalendarBackend.fromName(backend).newCalendar();
+        calendar.ensureCapacity(size);
+        for (Event event : booked) {
+            calendar.add(event);
+        }
+    }
+
+    /**
+     * Looks up an event that is in the calendar.
+     * @return True, as the event is found.
+     */
+    @Benchmark
+    public boolean contains() {
+        return calendar.contains(nextBooked());
+    }
+
+    /**
+     * Tries to add an event that is already in the calendar.
+     * @return False, as the add is rejected.
+     */
+    @Benchmark
+    public boolean addDuplicate() {
+        return calendar.add(nextBooked());
+    }
+
+    /**
+     * Adds an event that is not in the calendar, then removes it again.
+     * @return True if both succeeded.
+     */
+    @Benchmark
+    public boolean addAndRemove() {
+        Event event = absent[nextAbsent];
+        nextAbsent = (nextAbsent + 1) % NUM_ABSENT;
+        return calendar.add(event) & calendar.remove(event);
+    }
+
+    /**
+     * Removes an event that is in the calendar, then adds it back, which
+     * moves it to the end of the insertion order.
+     * @return True if both succeeded.
+     */
+    @Benchmark
+    public boolean removeAndAdd() {
+        Event event = nextBooked();
+        return calendar.remove(event) & calendar.add(event);
+    }
+
+    /**
+     * Prints the calendar in insertion order.
+     */
+    @Benchmark
+    public void print() {
+        calendar.print(DISCARD);
+    }
+
+    /**
+     * Prints the calendar sorted by date and start time.
+     */
+    @Benchmark
+    public void printByDate() {
+        calendar.printByDate(DISCARD);
+    }
+
+    /**
+     * Prints the calendar sorted by campus and building.
+     */
+    @Benchmark
+    public void printByCampus() {
+        calendar.printByCampus(DISCARD);
+    }
+
+    /**
+     * Prints the calendar sorted by department.
+     */
+    @Benchmark
+    public void printByDepartment() {
+        calendar.printByDepartment(DISCARD);
+    }
+
+    /**
+     * Utility method to pick the next event in the calendar, going round
+     * all of them.
+     * @return The event.
+     */
+    private Event nextBooked() {
+        Event event = booked[nextBooked];
+        nextBooked = nextBooked + 1 == size ? 0 : nextBooked + 1;
+        return event;
+    }
+}
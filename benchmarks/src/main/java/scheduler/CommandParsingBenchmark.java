@@ -0,0 +1,79 @@
+package scheduler;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of validating the fields of a command line the way the
+ * organizer does: tokenizing the line and parsing and checking its date,
+ * and checking a contact email. A fifth of the dates and emails are
+ * invalid.
+ * @author Dharmik Patel and Krish Patel
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CommandParsingBenchmark {
+    private static final int NUM_INPUTS = 1 << 12;
+    private static final int INDEX_OF_DATE = 1;
+
+    private ByteBuffer dateLines;
+    private CommandTokenizer commands;
+    private String[] emails;
+    private int nextEmail;
+
+    /**
+     * Makes the command lines and emails to validate.
+     */
+    @Setup
+    public void makeInputs() {
+        dateLines = ByteBuffer.wrap(CalendarBenchmark.makeDateLines(
+                NUM_INPUTS).getBytes(StandardCharsets.ISO_8859_1));
+        commands = new CommandTokenizer();
+        emails = new String[NUM_INPUTS];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = i % 5 == 0 ? "user" + i + "@gmail.com" :
+                    "user" + i + "@rutgers.edu";
+        }
+    }
+
+    /**
+     * Tokenizes the next command line and checks its date the way an add
+     * does.
+     * @return True if an event may be added on the date.
+     */
+    @Benchmark
+    public boolean parseAndCheckDate() {
+        if (!(commands.nextLine(dateLines, true))) {
+            dateLines.rewind();
+            commands.nextLine(dateLines, true);
+        }
+        return CalendarBenchmark.isValidEventDate(commands.parseDate(
+                INDEX_OF_DATE));
+    }
+
+    /**
+     * Checks the next contact email.
+     * @return True if the email is valid.
+     */
+    @Benchmark
+    public boolean checkEmail() {
+        String email = emails[nextEmail];
+        nextEmail = (nextEmail + 1) % NUM_INPUTS;
+        return Contact.isValidEmail(email);
+    }
+}
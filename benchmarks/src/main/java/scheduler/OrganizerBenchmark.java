@@ -0,0 +1,85 @@
+package scheduler;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of whole command lines through an EventOrganizer, on
+ * calendars already holding 10 to 1,000,000 events: tokenizing,
+ * validating, applying and answering each line, as ReplayHarness times
+ * them.
+ * <p>
+ * The lines are the adds, cancels and one-day range listings of
+ * CalendarBenchmark.makeCommands, all inside the six month window, and
+ * the calendar is filled beforehand with events a year from now, so the
+ * commands always run against {@code size} other events. The bitset
+ * backend only has room for the window itself, so it is left to
+ * CalendarStorageBenchmark.
+ * @author Dharmik Patel and Krish Patel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OrganizerBenchmark {
+    private static final int NUM_COMMANDS = 20_000;
+    private static final PrintStream DISCARD = new PrintStream(
+            OutputStream.nullOutputStream());
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"array", "concurrent"})
+    private String backend;
+
+    private EventOrganizer organizer;
+    private ByteBuffer lines;
+    private CommandTokenizer commands;
+
+    /**
+     * Fills a calendar of the backend with {@code size} events and makes
+     * an organizer for it.
+     */
+    @Setup
+    public void makeOrganizer() {
+        CalendarStorage calendar = CalendarBackend.fromName(backend)
+                .newCalendar();
+        calendar.ensureCapacity(size);
+        for (Event event : CalendarBenchmark.makeEvents(size, true,
+                CalendarBenchmark.PRELOAD_FIRST_DAY)) {
+            calendar.add(event);
+        }
+        organizer = new EventOrganizer(calendar, DISCARD);
+        lines = ByteBuffer.wrap(CalendarBenchmark.makeCommands(NUM_COMMANDS)
+                .getBytes(StandardCharsets.ISO_8859_1));
+        commands = new CommandTokenizer();
+    }
+
+    /**
+     * Runs the next command line, going round all of them.
+     */
+    @Benchmark
+    public void runCommand() {
+        if (!(commands.nextLine(lines, true))) {
+            lines.rewind();
+            commands.nextLine(lines, true);
+        }
+        organizer.runCommand(commands);
+    }
+}